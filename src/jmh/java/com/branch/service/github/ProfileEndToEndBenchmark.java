@@ -0,0 +1,73 @@
+package com.branch.service.github;
+
+import com.branch.service.github.model.dto.UserProfileResponse;
+import com.branch.service.github.service.ProfileService;
+import com.branch.service.github.support.StubGitHubServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * End-to-end {@code ProfileService.getUserProfile} (RestClient, pagination, JSON, aggregation) against an in-process
+ * stub GitHub server. The profile cache and conditional requests are off, so every call does the full fetch.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@State(Scope.Benchmark)
+public class ProfileEndToEndBenchmark {
+    // ******** Properties ********
+    @Param({"10", "1000"})
+    int repoCount;
+    private StubGitHubServer gitHub;
+    private ConfigurableApplicationContext context;
+    private ProfileService profileService;
+
+    // ******** Lifecycle ********
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        gitHub = new StubGitHubServer(repoCount, Duration.ZERO);
+        context = new SpringApplicationBuilder(Application.class)
+            .web(WebApplicationType.NONE)
+            .logStartupInfo(false)
+            .run("--github.api.base-url=" + gitHub.baseUrl(),
+                "--github.cache.enabled=false",
+                "--github.api.conditional-requests.enabled=false",
+                "--github.rate-limit.enabled=false", // <-- measure our code, not the token bucket
+                "--github.prewarm.enabled=false",
+                "--spring.docker.compose.enabled=false",
+                "--logging.level.root=WARN");
+        profileService = context.getBean(ProfileService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        gitHub.close();
+    }
+
+    // ******** Benchmarks ********
+    @Benchmark
+    public UserProfileResponse getUserProfile() {
+        return profileService.getUserProfile("octocat");
+    }
+}
@@ -0,0 +1,117 @@
+package com.branch.service.github;
+
+import com.branch.service.github.service.ProfileService;
+import com.branch.service.github.service.ReactiveProfileService;
+import com.branch.service.github.support.StubGitHubServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+
+/**
+ * Load test of the blocking vs. the reactive profile pipeline against a slow GitHub (in-process stub, 200ms per call):
+ * each operation is a wave of {@code concurrency} profile lookups for distinct users, all started at once. Score =
+ * time per wave, so profiles/s = concurrency / score.
+ * <p>
+ * Both modes run in the same JVM settings with the same upstream limits (bulkhead / connection pool). The blocking
+ * callers run on {@value #REQUEST_THREADS} platform threads, Tomcat's default request pool; the reactive mode only has
+ * its Netty event loops (one per core). Cache, conditional requests and rate limiting are off.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgs = {"-Xmx1g", "-Dsun.net.httpserver.maxIdleConnections=20000"}) // <-- the stub would otherwise close pooled connections past 200 idle
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@State(Scope.Benchmark)
+public class ProfileLoadBenchmark {
+    // ******** Properties ********
+    private static final int REQUEST_THREADS = 200;
+    private static final Duration GITHUB_LATENCY = Duration.ofMillis(200);
+    @Param({"blocking", "reactive"})
+    String mode;
+    @Param({"1000", "10000"})
+    int concurrency;
+    private StubGitHubServer gitHub;
+    private ConfigurableApplicationContext context;
+    private ExecutorService requestThreads;
+    private ProfileService profileService;
+    private ReactiveProfileService reactiveProfileService;
+    private int wave;
+
+    // ******** Lifecycle ********
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        gitHub = new StubGitHubServer(10, GITHUB_LATENCY);
+        boolean reactive = "reactive".equals(mode);
+        context = new SpringApplicationBuilder(Application.class)
+            .web(reactive ? WebApplicationType.REACTIVE : WebApplicationType.NONE)
+            .logStartupInfo(false)
+            .run("--github.api.base-url=" + gitHub.baseUrl(),
+                "--server.port=0",
+                "--github.cache.enabled=false",
+                "--github.api.conditional-requests.enabled=false",
+                "--github.rate-limit.enabled=false",
+                "--github.prewarm.enabled=false",
+                "--github.executor.max-concurrency=20000", // <-- same upstream limit for both modes
+                "--github.http.max-connections=20000",
+                "--spring.docker.compose.enabled=false",
+                "--logging.level.root=WARN");
+        if (reactive) {
+            reactiveProfileService = context.getBean(ReactiveProfileService.class);
+        } else {
+            profileService = context.getBean(ProfileService.class);
+            requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (requestThreads != null) {
+            requestThreads.shutdownNow();
+        }
+        context.close();
+        gitHub.close();
+    }
+
+    // ******** Benchmarks ********
+    @Benchmark
+    public int wave() throws Exception {
+        String prefix = "user-" + (wave++) + "-"; // <-- distinct users, so nothing is coalesced
+        if (reactiveProfileService != null) {
+            return Flux.range(0, concurrency)
+                .flatMap(i -> reactiveProfileService.getUserProfile(prefix + i), concurrency)
+                .count()
+                .block()
+                .intValue();
+        }
+        List<Future<?>> profiles = IntStream.range(0, concurrency)
+            .<Future<?>>mapToObj(i -> requestThreads.submit(() -> profileService.getUserProfile(prefix + i)))
+            .toList();
+        for (Future<?> profile : profiles) {
+            profile.get();
+        }
+        return profiles.size();
+    }
+}
@@ -0,0 +1,89 @@
+package com.branch.service.github.model;
+
+import com.branch.service.github.client.RepoListHttpMessageConverter;
+import com.branch.service.github.model.dto.UserProfileResponse;
+import com.branch.service.github.model.github.RepoResponse;
+import com.branch.service.github.model.github.UserResponse;
+import com.branch.service.github.support.GitHubFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+
+/**
+ * Jackson cost of the GitHub payloads we read (a user, a full 100-repo page, with databind and with the streaming
+ * {@link RepoListHttpMessageConverter} the client uses) and the profile we write.
+ * Run with {@code -prof gc} to see bytes allocated per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class JsonMappingBenchmark {
+    // ******** Properties ********
+    private static final TypeReference<List<RepoResponse>> REPO_LIST = new TypeReference<>() {};
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final byte[] userJson = GitHubFixtures.userJson();
+    private final byte[] repoPageJson = GitHubFixtures.reposJson(1, 100); // <-- GitHub's max page size
+
+    // ******** Benchmarks ********
+    @Benchmark
+    public UserResponse readUser() {
+        return jsonMapper.readValue(userJson, UserResponse.class);
+    }
+
+    @Benchmark
+    public List<RepoResponse> readRepoPage() {
+        return jsonMapper.readValue(repoPageJson, REPO_LIST);
+    }
+
+    @Benchmark
+    public List<RepoResponse> readRepoPageStreaming() {
+        return RepoListHttpMessageConverter.readRepos(new ByteArrayInputStream(repoPageJson));
+    }
+
+    @Benchmark
+    public byte[] writeProfile(Profile state) {
+        return jsonMapper.writeValueAsBytes(state.profile);
+    }
+
+    // ******** Inner classes ********
+    @State(Scope.Benchmark)
+    public static class Profile {
+        @Param({"10", "1000", "10000"})
+        int repoCount;
+        UserProfileResponse profile;
+
+        @Setup
+        public void setUp() {
+            profile = new UserProfileResponse();
+            profile.setUserName("octocat");
+            profile.setDisplayName("The Octocat");
+            profile.setAvatar("https://avatars.githubusercontent.com/u/583231");
+            profile.setGeoLocation("San Francisco");
+            profile.setEmail("octocat@github.com");
+            profile.setUrl("https://api.github.com/users/octocat");
+            profile.setCreatedAt("Tue, 25 Jan 2011 18:44:36 GMT");
+            profile.setRepos(IntStream.range(0, repoCount)
+                .mapToObj(i -> new UserProfileResponse.RepoInfo("repo-" + i, "https://api.github.com/repos/octocat/repo-" + i))
+                .toList());
+        }
+    }
+}
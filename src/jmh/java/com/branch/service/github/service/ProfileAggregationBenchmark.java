@@ -0,0 +1,70 @@
+package com.branch.service.github.service;
+
+import com.branch.service.github.model.dto.UserProfileResponse;
+import com.branch.service.github.model.github.RepoResponse;
+import com.branch.service.github.model.github.UserResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+
+/**
+ * Aggregation hot path: {@code ProfileService.buildUserProfileResponse} and {@code formatDate} (no I/O).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class ProfileAggregationBenchmark {
+    // ******** Properties ********
+    private final ProfileService profileService = new ProfileService(); // <-- the benchmarked methods don't use injected resources
+
+    // ******** Benchmarks ********
+    @Benchmark
+    public UserProfileResponse buildUserProfileResponse(Repos state) {
+        return profileService.buildUserProfileResponse(state.user, state.repos);
+    }
+
+    @Benchmark
+    public String formatDate() {
+        return profileService.formatDate("2011-01-25T18:44:36Z");
+    }
+
+    // ******** Inner classes ********
+    @State(Scope.Benchmark)
+    public static class Repos {
+        @Param({"10", "1000", "10000"})
+        int repoCount;
+        UserResponse user;
+        List<RepoResponse> repos;
+
+        @Setup
+        public void setUp() {
+            user = new UserResponse();
+            user.setLogin("octocat");
+            user.setName("The Octocat");
+            user.setAvatarUrl("https://avatars.githubusercontent.com/u/583231");
+            user.setLocation("San Francisco");
+            user.setEmail("octocat@github.com");
+            user.setUrl("https://api.github.com/users/octocat");
+            user.setCreatedAt("2011-01-25T18:44:36Z");
+            repos = IntStream.range(0, repoCount)
+                .mapToObj(i -> new RepoResponse("repo-" + i, "https://api.github.com/repos/octocat/repo-" + i))
+                .toList();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.branch.service.github.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+
+/**
+ * Realistic GitHub API payloads for benchmarks, built from the samples in {@code src/jmh/resources/github}.
+ */
+public final class GitHubFixtures {
+    // ******** Properties ********
+    private static final String USER_JSON = load("/github/user.json");
+    private static final String REPO_JSON = load("/github/repo.json");
+
+    // ******** Constructors ********
+    private GitHubFixtures() {}
+
+    // ******** Domain methods ********
+    public static byte[] userJson() {
+        return USER_JSON.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // a JSON array of repos, numbered from..to (inclusive), each with the full ~90 fields GitHub returns
+    public static byte[] reposJson(int from, int to) {
+        return IntStream.rangeClosed(from, to)
+            .mapToObj(i -> REPO_JSON.replace("Hello-World", "repo-" + i).replace("1296269", String.valueOf(1_000_000 + i)))
+            .collect(Collectors.joining(",", "[", "]"))
+            .getBytes(StandardCharsets.UTF_8);
+    }
+
+    // ******** Private methods ********
+    private static String load(String resource) {
+        try (InputStream in = GitHubFixtures.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("missing fixture [" + resource + "]");
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
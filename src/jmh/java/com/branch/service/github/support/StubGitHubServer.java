@@ -0,0 +1,117 @@
+package com.branch.service.github.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+
+/**
+ * In-process stand-in for api.github.com: serves {@code /users/{username}} and paginated {@code /users/{username}/repos}
+ * (with {@code Link} headers) from {@link GitHubFixtures}, optionally after a fixed latency. Bodies are gzipped when the
+ * client sends {@code Accept-Encoding: gzip}, like GitHub does.
+ */
+public class StubGitHubServer implements AutoCloseable {
+    // ******** Properties ********
+    private static final int PER_PAGE = 100;
+    private static final Pattern PAGE = Pattern.compile("[?&]page=(\\d+)");
+    private static final byte[] EMPTY_PAGE = "[]".getBytes();
+    private static final byte[] EMPTY_PAGE_GZIPPED = gzip(EMPTY_PAGE);
+    private final HttpServer server;
+    private final byte[] userJson;
+    private final byte[][] repoPages;
+    private final byte[] gzippedUserJson;
+    private final byte[][] gzippedRepoPages;
+    private final Duration latency;
+
+    // ******** Constructors ********
+    public StubGitHubServer(int repoCount, Duration latency) throws IOException {
+        this.userJson = GitHubFixtures.userJson();
+        int pages = Math.max(1, (repoCount + PER_PAGE - 1) / PER_PAGE);
+        this.repoPages = new byte[pages][];
+        for (int page = 0; page < pages; page++) {
+            int from = page * PER_PAGE + 1;
+            repoPages[page] = (repoCount == 0) ? EMPTY_PAGE : GitHubFixtures.reposJson(from, Math.min(repoCount, from + PER_PAGE - 1));
+        }
+        this.gzippedUserJson = gzip(userJson);
+        this.gzippedRepoPages = new byte[pages][];
+        for (int page = 0; page < pages; page++) {
+            gzippedRepoPages[page] = gzip(repoPages[page]);
+        }
+        this.latency = latency;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 4096); // <-- load tests open thousands of connections at once
+        this.server.createContext("/users/", this::handle);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.start();
+    }
+
+    // ******** Domain methods ********
+    public String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    // ******** Private methods ********
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!latency.isZero()) {
+                Thread.sleep(latency);
+            }
+            String path = exchange.getRequestURI().getPath();
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            boolean gzip = (acceptEncoding != null) && acceptEncoding.contains("gzip");
+            byte[] body;
+            if (path.endsWith("/repos")) {
+                int page = page(exchange.getRequestURI().getRawQuery());
+                byte[][] pages = gzip ? gzippedRepoPages : repoPages;
+                if (page <= pages.length) {
+                    body = pages[page - 1];
+                } else {
+                    body = gzip ? EMPTY_PAGE_GZIPPED : EMPTY_PAGE;
+                }
+                exchange.getResponseHeaders().add("Link", "<" + baseUrl() + path + "?per_page=" + PER_PAGE + "&page=" + repoPages.length + ">; rel=\"last\"");
+            } else {
+                body = gzip ? gzippedUserJson : userJson;
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+            if (gzip) {
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static int page(String query) {
+        Matcher matcher = PAGE.matcher((query != null) ? "?" + query : "");
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : 1;
+    }
+}
@@ -2,12 +2,13 @@ package com.branch.service.github;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-// import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 
 @SpringBootApplication
-// NOTE: if we wanted caching, we can enable it here (probably would want to configure a different cache provider though, like Caffeine or Ehcache)
-// @EnableCaching
+@ConfigurationPropertiesScan
+@EnableScheduling // <-- pre-warming of hot profiles (ProfilePrewarmer)
 public class Application {
 	public static void main(String[] args) {
 		SpringApplication.run(Application.class, args);
@@ -0,0 +1,69 @@
+package com.branch.service.github.cache;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+
+/**
+ * Approximate per-key counts in fixed memory ({@code depth} x {@code width} counters). Estimates never undercount, and
+ * overcount by a small amount proportional to the total count. Lock-free; {@link #halve()} ages all counts.
+ */
+public class CountMinSketch {
+    // ******** Properties ********
+    private final int depth;
+    private final int mask;
+    private final AtomicIntegerArray counters;
+
+    // ******** Constructors ********
+    public CountMinSketch(int depth, int width) {
+        if (Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("width must be a power of two [" + width + "]");
+        }
+        this.depth = depth;
+        this.mask = width - 1;
+        this.counters = new AtomicIntegerArray(depth * width);
+    }
+
+    // ******** Domain methods ********
+    // adds one occurrence and returns the new estimate
+    public int increment(String key) {
+        int hash = spread(key.hashCode());
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = row * (mask + 1) + (indexHash(hash, row) & mask);
+            estimate = Math.min(estimate, counters.incrementAndGet(index));
+        }
+        return estimate;
+    }
+
+    public int estimate(String key) {
+        int hash = spread(key.hashCode());
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(row * (mask + 1) + (indexHash(hash, row) & mask)));
+        }
+        return estimate;
+    }
+
+    // ages every count, so the sketch follows recent traffic rather than all-time totals
+    public void halve() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.updateAndGet(i, count -> count >>> 1);
+        }
+    }
+
+    // ******** Private domain methods ********
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        return hash;
+    }
+
+    // a different hash per row (double hashing on the spread hash)
+    private static int indexHash(int hash, int row) {
+        int h = hash + row * 0x9e3779b9;
+        h ^= h >>> 15;
+        h *= 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,80 @@
+package com.branch.service.github.cache;
+
+import com.branch.service.github.config.PrewarmProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Tracks the most requested usernames (heavy hitters): a {@link CountMinSketch} estimates how often each username is
+ * requested, and the {@code top-k} usernames by estimate are kept as candidates for pre-warming. Counts are halved on
+ * every {@link #decay()}, so the set follows current traffic.
+ */
+@Component
+public class HotKeyTracker {
+    // ******** Properties ********
+    private final int capacity;
+    private final CountMinSketch sketch = new CountMinSketch(4, 1 << 16);
+    private final Map<String, Integer> topK = new ConcurrentHashMap<>(); // username -> estimated count
+    private volatile int minimum; // smallest count in a full top-k, the bar a new username has to clear
+
+    // ******** Constructors ********
+    @Autowired
+    public HotKeyTracker(PrewarmProperties properties) {
+        this.capacity = properties.getTopK();
+    }
+
+    // ******** Domain methods ********
+    public void record(String username) {
+        String key = username.toLowerCase(Locale.ROOT);
+        int estimate = sketch.increment(key);
+        if (topK.computeIfPresent(key, (k, count) -> estimate) != null) {
+            return;
+        }
+        if (topK.size() < capacity || estimate > minimum) {
+            admit(key, estimate);
+        }
+    }
+
+    // the tracked usernames, hottest first
+    public List<String> hottest() {
+        return topK.entrySet().stream()
+            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+
+    public int size() {
+        return topK.size();
+    }
+
+    public synchronized void decay() {
+        sketch.halve();
+        topK.replaceAll((key, count) -> count >>> 1);
+        topK.values().removeIf(count -> count == 0);
+        minimum = topK.size() < capacity ? 0 : topK.values().stream().min(Integer::compare).orElse(0);
+    }
+
+    // ******** Private domain methods ********
+    // rare once traffic settles (only usernames that beat the current minimum get here), so a scan is fine
+    private synchronized void admit(String key, int estimate) {
+        if (topK.size() >= capacity) {
+            Map.Entry<String, Integer> coldest = topK.entrySet().stream().min(Comparator.comparingInt(Map.Entry::getValue)).orElse(null);
+            if (coldest == null || coldest.getValue() >= estimate) {
+                minimum = (coldest != null) ? coldest.getValue() : 0;
+                return;
+            }
+            topK.remove(coldest.getKey());
+        }
+        topK.put(key, estimate);
+        if (topK.size() >= capacity) {
+            minimum = topK.values().stream().min(Integer::compare).orElse(0);
+        }
+    }
+}
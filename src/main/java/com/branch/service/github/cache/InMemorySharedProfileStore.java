@@ -0,0 +1,109 @@
+package com.branch.service.github.cache;
+
+import com.branch.service.github.model.dto.UserProfileResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+
+/**
+ * In-process {@link SharedProfileStore}, a stand-in for Redis: profiles are kept encoded (as in Redis) with their expiry,
+ * and invalidations are delivered synchronously to the other nodes. {@link #newNode()} gives another replica's view of
+ * the same store, so tests can run several {@link ProfileCache}s against it.
+ */
+public class InMemorySharedProfileStore implements SharedProfileStore {
+    // ******** Properties ********
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Backend backend;
+
+    // ******** Constructors ********
+    public InMemorySharedProfileStore() {
+        this(System::currentTimeMillis);
+    }
+
+    public InMemorySharedProfileStore(LongSupplier clock) {
+        this(new Backend(clock));
+    }
+
+    private InMemorySharedProfileStore(Backend backend) {
+        this.backend = backend;
+    }
+
+    // ******** Domain methods ********
+    // another replica sharing this store (own leases and invalidation listeners)
+    public InMemorySharedProfileStore newNode() {
+        return new InMemorySharedProfileStore(backend);
+    }
+
+    @Override
+    public Entry get(String key) {
+        Stored stored = backend.values.get(key);
+        if (stored == null || stored.expiresAtMillis() <= backend.clock.getAsLong()) {
+            return null;
+        }
+        return ProfileCodec.decode(stored.bytes());
+    }
+
+    @Override
+    public void put(String key, UserProfileResponse profile, long writtenAtMillis, Duration ttl) {
+        backend.values.put(key, new Stored(ProfileCodec.encode(profile, writtenAtMillis), backend.clock.getAsLong() + ttl.toMillis()));
+        publish(key);
+    }
+
+    @Override
+    public void invalidate(String key) {
+        backend.values.remove(key);
+        publish(key);
+    }
+
+    @Override
+    public boolean tryLease(String key, Duration lease) {
+        long now = backend.clock.getAsLong();
+        Lease held = backend.leases.compute(key, (k, current) ->
+            (current == null || current.expiresAtMillis() <= now) ? new Lease(nodeId, now + lease.toMillis()) : current);
+        return held.nodeId().equals(nodeId);
+    }
+
+    @Override
+    public void releaseLease(String key) {
+        backend.leases.computeIfPresent(key, (k, current) -> current.nodeId().equals(nodeId) ? null : current);
+    }
+
+    @Override
+    public void onInvalidation(Consumer<String> listener) {
+        backend.listeners.add(new Listener(nodeId, listener));
+    }
+
+    // ******** Private domain methods ********
+    private void publish(String key) {
+        for (Listener listener : backend.listeners) {
+            if (!listener.nodeId().equals(nodeId)) { // <-- like the Redis store, a node ignores its own messages
+                listener.callback().accept(key);
+            }
+        }
+    }
+
+    // ******** Inner classes ********
+    private static final class Backend {
+        private final LongSupplier clock;
+        private final Map<String, Stored> values = new ConcurrentHashMap<>();
+        private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+        private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+        private Backend(LongSupplier clock) {
+            this.clock = clock;
+        }
+    }
+
+    private record Stored(byte[] bytes, long expiresAtMillis) {}
+
+    private record Lease(String nodeId, long expiresAtMillis) {}
+
+    private record Listener(String nodeId, Consumer<String> callback) {}
+}
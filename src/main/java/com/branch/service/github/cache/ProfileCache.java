@@ -0,0 +1,438 @@
+package com.branch.service.github.cache;
+
+import com.branch.service.github.client.UpstreamContext;
+import com.branch.service.github.client.UpstreamContext.Priority;
+import com.branch.service.github.config.CacheProperties;
+import com.branch.service.github.exception.DeadlineExceededException;
+import com.branch.service.github.exception.GitHubApiException;
+import com.branch.service.github.exception.UserNotFoundException;
+import com.branch.service.github.model.dto.UserProfileResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+
+/**
+ * Size-bounded cache of assembled profiles with stale-while-revalidate.
+ * <p>
+ * An entry is "fresh" for {@code github.cache.ttl} and then "stale" for {@code github.cache.stale-ttl}. Stale entries
+ * are still returned to the caller, but trigger a single background refresh so hot usernames never block on GitHub.
+ * <p>
+ * The last complete profile of each user is also kept for {@code github.cache.last-good-ttl}, as a fallback for when
+ * GitHub is unavailable. Partial profiles are never cached.
+ * <p>
+ * Usernames GitHub answered 404 for are remembered for {@code github.cache.not-found-ttl} (a short ttl, so a new account
+ * shows up soon), so bots and typos repeating a nonexistent username cost a single GitHub lookup.
+ * <p>
+ * With a {@link SharedProfileStore} ({@code github.cache.shared.type}), this is the near-cache of a cache shared by all
+ * replicas: local misses are looked up there (keeping the original fetch time, so freshness is the same everywhere),
+ * puts are written through and make the other replicas drop their local copy, and a lease per username makes a single
+ * replica fetch it from GitHub while the others wait for (or keep serving) the shared copy, i.e. - a username is
+ * fetched once per ttl across the fleet rather than once per replica.
+ */
+@Component
+public class ProfileCache {
+    // ******** Properties ********
+    private static final Logger log = LoggerFactory.getLogger(ProfileCache.class);
+    private static final Duration SHARED_POLL_INTERVAL = Duration.ofMillis(25);
+    private final CacheProperties properties;
+    private final Executor refreshExecutor; // <-- background refreshes, and the shared load behind a miss
+    private final Ticker ticker;
+    private final LongSupplier wallClock; // <-- fetch times in the shared store have to mean the same on every replica
+    private final SharedProfileStore sharedStore; // <-- null = local cache only
+    private final Cache<String, Entry> cache;
+    private final Cache<String, UserProfileResponse> lastKnownGood;
+    private final Cache<String, Boolean> notFound;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final Map<String, CompletableFuture<UserProfileResponse>> loading = new ConcurrentHashMap<>(); // key -> miss being loaded
+    // -- counters (hits/misses/evictions come from caffeine) --
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private final LongAdder sharedHits = new LongAdder();
+    private final LongAdder notFoundHits = new LongAdder();
+
+    // ******** Constructors ********
+    @Autowired
+    public ProfileCache(CacheProperties properties, @Qualifier("gitHubExecutor") Executor refreshExecutor,
+                        ObjectProvider<SharedProfileStore> sharedStore) {
+        this(properties, refreshExecutor, Ticker.systemTicker(), System::currentTimeMillis, sharedStore.getIfAvailable());
+    }
+
+    public ProfileCache(CacheProperties properties, Executor refreshExecutor, Ticker ticker) {
+        this(properties, refreshExecutor, ticker, System::currentTimeMillis, null);
+    }
+
+    public ProfileCache(CacheProperties properties, Executor refreshExecutor, Ticker ticker, LongSupplier wallClock,
+                        SharedProfileStore sharedStore) {
+        this.properties = properties;
+        this.refreshExecutor = refreshExecutor;
+        this.ticker = ticker;
+        this.wallClock = wallClock;
+        this.sharedStore = sharedStore;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(properties.getMaxSize())
+            .expireAfterWrite(properties.getTtl().plus(properties.getStaleTtl()))
+            .ticker(ticker)
+            .recordStats()
+            .build();
+        this.lastKnownGood = Caffeine.newBuilder()
+            .maximumSize(properties.getMaxSize())
+            .expireAfterWrite(properties.getLastGoodTtl())
+            .ticker(ticker)
+            .build();
+        this.notFound = Caffeine.newBuilder()
+            .maximumSize(properties.getNotFoundMaxSize())
+            .expireAfterWrite(properties.getNotFoundTtl())
+            .ticker(ticker)
+            .build();
+        if (sharedStore != null) {
+            sharedStore.onInvalidation(cache::invalidate); // <-- another replica has a newer profile (or none), re-read it from the shared store
+        }
+    }
+
+    // ******** Domain methods ********
+    /**
+     * Returns the cached profile for the user, calling the loader on a miss. A stale hit is returned immediately and
+     * refreshed in the background. Loader exceptions are not cached and propagate to the caller.
+     * <p>
+     * Concurrent misses on the same user share one load (single-flight, the only place profile fetches are coalesced):
+     * the first caller starts it and it stores the profile (i.e. - one write and one invalidation on the shared store).
+     * The load runs on its own thread without any caller's deadline (the loader sets its own), so every caller, the first
+     * one included, waits for it until their own deadline, sharing its result or its error.
+     */
+    public UserProfileResponse get(String username, Function<String, UserProfileResponse> loader) {
+        return awaitLoad(getAsync(username, loader), username);
+    }
+
+    /**
+     * Same as {@link #get}, without waiting: the cached profile, or the shared load of the miss (started if needed), i.e. -
+     * for callers that can't block on the load. Looking up the shared store still blocks, so not on an event loop.
+     */
+    public CompletableFuture<UserProfileResponse> getAsync(String username, Function<String, UserProfileResponse> loader) {
+        UserProfileResponse cached = getIfPresent(username, loader);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        log.debug("profile cache miss for user [{}]", username);
+        String key = key(username);
+        CompletableFuture<UserProfileResponse> load = new CompletableFuture<>();
+        CompletableFuture<UserProfileResponse> existing = loading.putIfAbsent(key, load);
+        if (existing != null) {
+            log.debug("joining in-flight load for user [{}]", username);
+            return existing;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    UserProfileResponse profile = UpstreamContext.callWithin(null, () -> loadAndPut(key, username, loader));
+                    loading.remove(key, load); // <-- already cached, so the next caller hits
+                    load.complete(profile);
+                } catch (Throwable e) {
+                    loading.remove(key, load); // <-- before the callers see the failure, so the next one starts a new load
+                    load.completeExceptionally(e); // <-- Errors included, callers must never hang on a load that's gone
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            loading.remove(key, load);
+            load.completeExceptionally(new GitHubApiException("unable to load the profile of [" + username + "]", e));
+        }
+        return load;
+    }
+
+    /**
+     * Same as {@link #get}, without loading on a miss (null): for callers that load the profile themselves, i.e. - without
+     * blocking. A stale hit is still refreshed in the background with the loader.
+     */
+    public UserProfileResponse getIfPresent(String username, Function<String, UserProfileResponse> loader) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        String key = key(username);
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null || isExpired(entry)) {
+            entry = getShared(key);
+        }
+        if (entry == null) {
+            return null;
+        }
+        if (!isFresh(entry)) {
+            staleHits.increment();
+            refreshAsync(key, username, loader);
+        }
+        return entry.profile();
+    }
+
+    public void put(String username, UserProfileResponse profile) {
+        if (!properties.isEnabled() || profile.isPartial()) {
+            return; // <-- a degraded profile must not replace (or outlive) the real one
+        }
+        String key = key(username);
+        long writtenAtMillis = wallClock.getAsLong();
+        cache.put(key, new Entry(profile, ticker.read()));
+        lastKnownGood.put(key, profile);
+        if (sharedStore != null) {
+            sharedStore.put(key, profile, writtenAtMillis, properties.getTtl().plus(properties.getStaleTtl()));
+        }
+    }
+
+    // the user's profile if it's cached and fresh, or null (doesn't load, refresh or count as a hit/miss)
+    public UserProfileResponse getIfFresh(String username) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        Entry entry = cache.asMap().get(key(username));
+        return (entry != null && isFresh(entry)) ? entry.profile() : null;
+    }
+
+    // how long the user's cached profile stays fresh (zero when stale or not cached), i.e. - how long clients may reuse it
+    public Duration getRemainingFreshness(String username) {
+        if (!properties.isEnabled()) {
+            return Duration.ZERO;
+        }
+        Entry entry = cache.asMap().get(key(username));
+        if (entry == null) {
+            return Duration.ZERO;
+        }
+        long remainingNanos = properties.getTtl().toNanos() - (ticker.read() - entry.writeNanos());
+        return (remainingNanos > 0) ? Duration.ofNanos(remainingNanos) : Duration.ZERO;
+    }
+
+    // whether GitHub answered 404 for the username less than not-found-ttl ago
+    public boolean isKnownNotFound(String username) {
+        if (!properties.isEnabled() || notFound.getIfPresent(key(username)) == null) {
+            return false;
+        }
+        notFoundHits.increment();
+        return true;
+    }
+
+    // remembers a 404 from GitHub (only then: a hit doesn't extend the ttl, so a new account is found on time)
+    public void putNotFound(String username) {
+        if (properties.isEnabled()) {
+            notFound.put(key(username), Boolean.TRUE);
+        }
+    }
+
+    // the last complete profile seen for the user (possibly well past stale-ttl), or null
+    public UserProfileResponse getLastKnownGood(String username) {
+        return properties.isEnabled() ? lastKnownGood.getIfPresent(key(username)) : null;
+    }
+
+    /**
+     * Whether the user's profile goes stale within {@code lead} (or isn't cached at all), i.e. - is due for pre-warming.
+     */
+    public boolean isExpiringWithin(String username, Duration lead) {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+        Entry entry = cache.asMap().get(key(username)); // <-- a peek, not counted as a hit or miss
+        return entry != null && ticker.read() - entry.writeNanos() > properties.getTtl().minus(lead).toNanos(); // <-- nothing to refresh when uncached
+    }
+
+    // reloads the profile in the background (at background priority), unless a refresh is already in flight
+    public void refresh(String username, Function<String, UserProfileResponse> loader) {
+        if (properties.isEnabled()) {
+            refreshAsync(key(username), username, loader);
+        }
+    }
+
+    public void invalidate(String username) {
+        cache.invalidate(key(username));
+        lastKnownGood.invalidate(key(username));
+        if (sharedStore != null) {
+            sharedStore.invalidate(key(username));
+        }
+    }
+
+    public void cleanUp() {
+        cache.cleanUp();
+        lastKnownGood.cleanUp();
+        notFound.cleanUp();
+    }
+
+    // misses being loaded right now (see get)
+    public int getLoadingCount() {
+        return loading.size();
+    }
+
+    public Stats stats() {
+        CacheStats caffeineStats = cache.stats();
+        return new Stats(caffeineStats.hitCount(), caffeineStats.missCount(), staleHits.sum(), caffeineStats.evictionCount(),
+            refreshes.sum(), refreshFailures.sum(), sharedHits.sum(), notFoundHits.sum(), cache.estimatedSize());
+    }
+
+    // ******** Private domain methods ********
+    // a miss (see get): waits for the replica holding the shared store lease, if any, or loads the profile and stores it
+    private UserProfileResponse loadAndPut(String key, String username, Function<String, UserProfileResponse> loader) {
+        boolean leased = false;
+        if (sharedStore != null && properties.isEnabled()) {
+            leased = sharedStore.tryLease(key, properties.getShared().getLease());
+            if (!leased) {
+                UserProfileResponse fetchedElsewhere = awaitShared(key); // <-- another replica is fetching it
+                if (fetchedElsewhere != null) {
+                    return fetchedElsewhere;
+                }
+                log.debug("no shared profile for user [{}] after [{}], fetching it here", username, properties.getShared().getMissWait());
+            }
+        }
+        try {
+            UserProfileResponse profile = loader.apply(username);
+            put(username, profile);
+            return profile;
+        } finally {
+            if (leased) {
+                sharedStore.releaseLease(key);
+            }
+        }
+    }
+
+    // waits for the shared load of a miss (same error, if it fails), until the caller's deadline
+    private static UserProfileResponse awaitLoad(CompletableFuture<UserProfileResponse> load, String username) {
+        try {
+            Duration remaining = UpstreamContext.remaining();
+            return (remaining == null) ? load.get() : load.get(Math.max(0, remaining.toNanos()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new DeadlineExceededException("request deadline passed while waiting for the profile of [" + username + "]");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new GitHubApiException("failed to load the profile of [" + username + "]", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GitHubApiException("interrupted while waiting for the profile of [" + username + "]", e);
+        }
+    }
+
+    private void refreshAsync(String key, String username, Function<String, UserProfileResponse> loader) {
+        if (!refreshing.add(key)) {
+            return; // refresh already in flight for this user
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                boolean leased = false;
+                try {
+                    if (sharedStore != null) {
+                        Entry shared = getShared(key);
+                        if (shared != null && isFresh(shared)) {
+                            return; // <-- another replica already refreshed it
+                        }
+                        leased = sharedStore.tryLease(key, properties.getShared().getLease());
+                        if (!leased) {
+                            return; // <-- another replica is refreshing it, keep serving the stale profile until it's done
+                        }
+                    }
+                    // refreshes yield to user-facing calls when the GitHub rate limit budget runs low, and don't inherit the
+                    // deadline of the request that found the profile stale (nobody waits on them)
+                    UserProfileResponse refreshed = UpstreamContext.callWithin(null,
+                        () -> UpstreamContext.callAs(Priority.BACKGROUND, () -> loader.apply(username)));
+                    if (refreshed.isPartial()) {
+                        log.warn("background refresh for user [{}] only got a partial profile, keeping stale profile", username);
+                        refreshFailures.increment();
+                    } else {
+                        put(username, refreshed);
+                        refreshes.increment();
+                    }
+                } catch (UserNotFoundException e) {
+                    log.info("user [{}] no longer exists on GitHub, evicting cached profile", username);
+                    refreshFailures.increment();
+                    invalidate(username);
+                } catch (RuntimeException e) {
+                    log.warn("background refresh failed for user [{}], keeping stale profile", username, e);
+                    refreshFailures.increment();
+                } finally {
+                    if (leased) {
+                        sharedStore.releaseLease(key);
+                    }
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("unable to schedule background refresh for user [{}]", username, e);
+            refreshing.remove(key);
+        }
+    }
+
+    // the shared copy of the key (kept locally, with its age), or null
+    private Entry getShared(String key) {
+        if (sharedStore == null) {
+            return null;
+        }
+        SharedProfileStore.Entry shared = sharedStore.get(key);
+        if (shared == null) {
+            return null;
+        }
+        long ageNanos = Math.max(0, wallClock.getAsLong() - shared.writtenAtMillis()) * 1_000_000;
+        Entry entry = new Entry(shared.profile(), ticker.read() - ageNanos);
+        if (isExpired(entry)) {
+            return null;
+        }
+        cache.put(key, entry);
+        lastKnownGood.put(key, shared.profile());
+        sharedHits.increment();
+        return entry;
+    }
+
+    // polls the shared store while the replica holding the lease fetches the profile, gives up (null) after miss-wait
+    // (part of the shared load, so callers stop waiting for it at their own deadline, see get)
+    private UserProfileResponse awaitShared(String key) {
+        long deadline = System.nanoTime() + properties.getShared().getMissWait().toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(SHARED_POLL_INTERVAL);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            Entry entry = getShared(key);
+            if (entry != null) {
+                return entry.profile();
+            }
+        }
+        return null;
+    }
+
+    private boolean isFresh(Entry entry) {
+        return ticker.read() - entry.writeNanos() < properties.getTtl().toNanos();
+    }
+
+    // past stale-ttl, i.e. - a shared copy adopted late, which caffeine would keep for a full ttl + stale-ttl from then
+    private boolean isExpired(Entry entry) {
+        return ticker.read() - entry.writeNanos() >= properties.getTtl().plus(properties.getStaleTtl()).toNanos();
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT); // GitHub usernames are case-insensitive
+    }
+
+    // ******** Inner classes ********
+    private record Entry(UserProfileResponse profile, long writeNanos) {}
+
+    public record Stats(long hits, long misses, long staleHits, long evictions, long refreshes, long refreshFailures, long sharedHits, long notFoundHits, long size) {}
+}
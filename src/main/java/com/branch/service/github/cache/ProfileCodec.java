@@ -0,0 +1,134 @@
+package com.branch.service.github.cache;
+
+import com.branch.service.github.model.dto.UserProfileResponse;
+import com.branch.service.github.model.dto.UserProfileResponse.RepoInfo;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Binary encoding of cached profiles for the {@link SharedProfileStore}: no field names and varint lengths, so a profile
+ * takes roughly the size of its strings (well under its JSON).
+ * <p>
+ * Layout is {@code [version][written at][flags][7 strings][repo count][name, url]...}, where a string is
+ * {@code [varint length + 1][UTF-8]} (0 = null) and repos are only there when the has-repos flag is set. Decoding
+ * rejects other versions, so replicas on a different format just see a miss during a rolling deploy.
+ */
+final class ProfileCodec {
+    // ******** Properties ********
+    static final byte VERSION = 1;
+    private static final int PARTIAL = 1;
+    private static final int HAS_REPOS = 1 << 1;
+
+    // ******** Constructors ********
+    private ProfileCodec() {}
+
+    // ******** Domain methods ********
+    static byte[] encode(UserProfileResponse profile, long writtenAtMillis) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        out.write(VERSION);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (writtenAtMillis >>> shift));
+        }
+        List<RepoInfo> repos = profile.getRepos();
+        out.write((profile.isPartial() ? PARTIAL : 0) | ((repos != null) ? HAS_REPOS : 0));
+        writeString(out, profile.getUserName());
+        writeString(out, profile.getDisplayName());
+        writeString(out, profile.getAvatar());
+        writeString(out, profile.getGeoLocation());
+        writeString(out, profile.getEmail());
+        writeString(out, profile.getUrl());
+        writeString(out, profile.getCreatedAt());
+        if (repos != null) {
+            writeVarint(out, repos.size());
+            for (RepoInfo repo : repos) {
+                writeString(out, repo.getName());
+                writeString(out, repo.getUrl());
+            }
+        }
+        return out.toByteArray();
+    }
+
+    // throws IllegalArgumentException when the bytes aren't a profile of this version
+    static SharedProfileStore.Entry decode(byte[] bytes) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(bytes);
+            byte version = in.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("unsupported profile encoding version [" + version + "]");
+            }
+            long writtenAtMillis = in.getLong();
+            int flags = in.get();
+            UserProfileResponse profile = new UserProfileResponse();
+            profile.setPartial((flags & PARTIAL) != 0);
+            profile.setUserName(readString(in));
+            profile.setDisplayName(readString(in));
+            profile.setAvatar(readString(in));
+            profile.setGeoLocation(readString(in));
+            profile.setEmail(readString(in));
+            profile.setUrl(readString(in));
+            profile.setCreatedAt(readString(in));
+            if ((flags & HAS_REPOS) != 0) {
+                int count = readVarint(in);
+                List<RepoInfo> repos = new ArrayList<>(Math.min(count, in.remaining() / 2)); // <-- each repo takes 2+ bytes
+                for (int i = 0; i < count; i++) {
+                    repos.add(new RepoInfo(readString(in), readString(in)));
+                }
+                profile.setRepos(repos);
+            }
+            return new SharedProfileStore.Entry(profile, writtenAtMillis);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("truncated profile encoding", e);
+        }
+    }
+
+    // ******** Private domain methods ********
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        if (value == null) {
+            out.write(0);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, utf8.length + 1);
+        out.write(utf8, 0, utf8.length);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = readVarint(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        if (length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    // i.e. - 7 bits per byte, high bit set on all but the last
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("malformed varint in profile encoding");
+    }
+}
@@ -0,0 +1,161 @@
+package com.branch.service.github.cache;
+
+import com.branch.service.github.config.CacheProperties;
+import com.branch.service.github.model.dto.UserProfileResponse;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisException;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+
+/**
+ * {@link SharedProfileStore} on Redis (or anything speaking its protocol), with Lettuce: profiles are
+ * {@link ProfileCodec} values with a TTL, invalidations are {@code [node id]|[key]} messages on a pub/sub channel, and
+ * leases are {@code SET NX PX} keys holding the node id (released only by their owner).
+ * <p>
+ * Lookups and leases are synchronous, bounded by {@code github.cache.shared.timeout}; puts, invalidations and releases
+ * are pipelined without waiting. Once started, Redis errors are logged and treated as misses: the replicas fall back to
+ * their own cache and fetch from GitHub themselves until Redis is back (Lettuce reconnects on its own).
+ * <p>
+ * Created by {@code SharedCacheConfig} (not component-scanned), so the store type stays a runtime switch in AOT builds.
+ */
+public class RedisSharedProfileStore implements SharedProfileStore, DisposableBean {
+    // ******** Properties ********
+    private static final Logger log = LoggerFactory.getLogger(RedisSharedProfileStore.class);
+    private static final RedisCodec<String, byte[]> CODEC = RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE);
+    private static final String RELEASE_SCRIPT = "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
+    private final String nodeId = UUID.randomUUID().toString();
+    private final byte[] nodeIdBytes = nodeId.getBytes(StandardCharsets.UTF_8);
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+    private final CacheProperties.Shared properties;
+    private final RedisClient client;
+    private final StatefulRedisConnection<String, byte[]> connection;
+    private final StatefulRedisPubSubConnection<String, String> pubSub;
+
+    // ******** Constructors ********
+    public RedisSharedProfileStore(CacheProperties.Shared shared) {
+        this.properties = shared;
+        client = RedisClient.create(RedisURI.builder(RedisURI.create(shared.getRedisUri())).withTimeout(shared.getTimeout()).build());
+        connection = client.connect(CODEC); // <-- fails startup if Redis can't be reached (it was asked for explicitly)
+        pubSub = client.connectPubSub();
+        pubSub.addListener(new RedisPubSubAdapter<>() {
+            @Override
+            public void message(String channel, String message) {
+                onMessage(message);
+            }
+        });
+        pubSub.sync().subscribe(shared.getChannel());
+        log.info("shared profile cache on Redis [{}] as node [{}]", shared.getRedisUri(), nodeId);
+    }
+
+    // ******** Domain methods ********
+    @Override
+    public void destroy() {
+        pubSub.close();
+        connection.close();
+        client.shutdown();
+    }
+
+    @Override
+    public Entry get(String key) {
+        try {
+            byte[] bytes = connection.sync().get(valueKey(key));
+            return (bytes != null) ? ProfileCodec.decode(bytes) : null;
+        } catch (RedisException e) {
+            log.warn("shared profile cache lookup failed for key [{}], treating as a miss", key, e);
+            return null;
+        } catch (IllegalArgumentException e) {
+            log.warn("unreadable shared profile for key [{}] [{}], treating as a miss", key, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void put(String key, UserProfileResponse profile, long writtenAtMillis, Duration ttl) {
+        byte[] bytes = ProfileCodec.encode(profile, writtenAtMillis);
+        logFailure(connection.async().set(valueKey(key), bytes, SetArgs.Builder.px(ttl.toMillis())), "put", key);
+        publish(key); // <-- same connection, so Redis sees it after the SET
+    }
+
+    @Override
+    public void invalidate(String key) {
+        logFailure(connection.async().del(valueKey(key)), "invalidate", key);
+        publish(key);
+    }
+
+    @Override
+    public boolean tryLease(String key, Duration lease) {
+        try {
+            String leaseKey = leaseKey(key);
+            if ("OK".equals(connection.sync().set(leaseKey, nodeIdBytes, SetArgs.Builder.nx().px(lease.toMillis())))) {
+                return true;
+            }
+            return Arrays.equals(nodeIdBytes, connection.sync().get(leaseKey)); // <-- held by this node already
+        } catch (RedisException e) {
+            log.warn("unable to take shared lease for key [{}], fetching without it", key, e);
+            return true;
+        }
+    }
+
+    @Override
+    public void releaseLease(String key) {
+        logFailure(connection.async().eval(RELEASE_SCRIPT, ScriptOutputType.INTEGER, new String[] {leaseKey(key)}, nodeIdBytes), "release lease", key);
+    }
+
+    @Override
+    public void onInvalidation(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    // ******** Private domain methods ********
+    private void publish(String key) {
+        byte[] message = (nodeId + "|" + key).getBytes(StandardCharsets.UTF_8);
+        logFailure(connection.async().publish(properties.getChannel(), message), "publish invalidation", key);
+    }
+
+    private void onMessage(String message) {
+        int separator = message.indexOf('|');
+        if (separator < 0 || message.startsWith(nodeId + "|")) {
+            return; // <-- not ours to read, or our own invalidation
+        }
+        String key = message.substring(separator + 1);
+        for (Consumer<String> listener : listeners) {
+            listener.accept(key);
+        }
+    }
+
+    private String valueKey(String key) {
+        return properties.getKeyPrefix() + key;
+    }
+
+    private String leaseKey(String key) {
+        return properties.getKeyPrefix() + "lease:" + key;
+    }
+
+    private static void logFailure(RedisFuture<?> future, String operation, String key) {
+        future.whenComplete((result, e) -> {
+            if (e != null) {
+                log.warn("shared profile cache [{}] failed for key [{}]", operation, key, e);
+            }
+        });
+    }
+}
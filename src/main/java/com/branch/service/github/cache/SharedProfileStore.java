@@ -0,0 +1,40 @@
+package com.branch.service.github.cache;
+
+import com.branch.service.github.model.dto.UserProfileResponse;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+
+/**
+ * Profile cache shared by all replicas ({@code github.cache.shared.type}), with {@link ProfileCache} as the near-cache in
+ * front of it. Besides the profiles themselves (see {@link ProfileCodec}), it carries:
+ * <ul>
+ *   <li>invalidation messages: a put or invalidate tells the other replicas to drop their local copy of the key</li>
+ *   <li>per-key leases: the replica holding one is the only one fetching that username from GitHub</li>
+ * </ul>
+ * The shared tier is best-effort: implementations log and degrade to a miss (or a granted lease) rather than fail the
+ * request when the store is unreachable.
+ */
+public interface SharedProfileStore {
+    // ******** Domain methods ********
+    // the profile stored under the key, with the (wall clock) time it was fetched at, or null
+    Entry get(String key);
+
+    // stores the profile for ttl and tells the other replicas to drop their local copy
+    void put(String key, UserProfileResponse profile, long writtenAtMillis, Duration ttl);
+
+    // removes the profile and tells the other replicas to drop their local copy
+    void invalidate(String key);
+
+    // whether this replica may fetch the key from GitHub (leases are per replica, so it's true if it already holds it)
+    boolean tryLease(String key, Duration lease);
+
+    void releaseLease(String key);
+
+    // called with the key of every invalidation sent by another replica
+    void onInvalidation(Consumer<String> listener);
+
+    // ******** Inner classes ********
+    record Entry(UserProfileResponse profile, long writtenAtMillis) {}
+}
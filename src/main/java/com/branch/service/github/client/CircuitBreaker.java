@@ -0,0 +1,142 @@
+package com.branch.service.github.client;
+
+import com.branch.service.github.config.CircuitBreakerProperties;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Count-based circuit breaker for one GitHub endpoint.
+ * <ul>
+ *     <li>CLOSED: calls go through, and the outcomes of the last {@code window-size} calls are kept. Once the failure
+ *     rate reaches {@code failure-rate-threshold} (over at least {@code minimum-calls}) the circuit opens</li>
+ *     <li>OPEN: calls fail fast for {@code open-duration}</li>
+ *     <li>HALF_OPEN: up to {@code half-open-probes} calls are let through. All succeeding closes the circuit, any
+ *     failure opens it again</li>
+ * </ul>
+ */
+public class CircuitBreaker {
+    // ******** Properties ********
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+    private final String name;
+    private final CircuitBreakerProperties properties;
+    private final Ticker ticker;
+    private final boolean[] window; // <-- ring buffer of outcomes, true = failure
+    private State state = State.CLOSED;
+    private int calls;
+    private int failures;
+    private int next;
+    private long openedAtNanos;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    // ******** Constructors ********
+    public CircuitBreaker(String name, CircuitBreakerProperties properties, Ticker ticker) {
+        this.name = name;
+        this.properties = properties;
+        this.ticker = ticker;
+        this.window = new boolean[properties.getWindowSize()];
+    }
+
+    // ******** Domain methods ********
+    /**
+     * Whether a call may go out now. Every permitted call must be followed by exactly one of {@link #onSuccess()},
+     * {@link #onFailure()} or {@link #onIgnored()}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (ticker.read() - openedAtNanos < properties.getOpenDuration().toNanos()) {
+                return false;
+            }
+            log.info("circuit [{}] half-open, probing GitHub", name);
+            state = State.HALF_OPEN;
+            probesInFlight = 0;
+            probeSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight + probeSuccesses >= properties.getHalfOpenProbes()) {
+                return false;
+            }
+            probesInFlight++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            probesInFlight--;
+            if (++probeSuccesses >= properties.getHalfOpenProbes()) {
+                log.info("circuit [{}] closed, GitHub recovered", name);
+                reset(State.CLOSED);
+            }
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(true);
+            if (calls >= properties.getMinimumCalls() && failures >= calls * properties.getFailureRateThreshold()) {
+                open();
+            }
+        }
+    }
+
+    // the call didn't reach GitHub (i.e. - refused by the rate limiter), so it says nothing about GitHub's health
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            probesInFlight--;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized long getSecondsUntilHalfOpen() {
+        long remaining = properties.getOpenDuration().toNanos() - (ticker.read() - openedAtNanos);
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remaining));
+    }
+
+    // ******** Private domain methods ********
+    private void record(boolean failure) {
+        if (calls == window.length) {
+            failures -= window[next] ? 1 : 0; // <-- oldest outcome drops out of the window
+        } else {
+            calls++;
+        }
+        window[next] = failure;
+        failures += failure ? 1 : 0;
+        next = (next + 1) % window.length;
+    }
+
+    private void open() {
+        log.warn("circuit [{}] open, failing GitHub calls fast for [{}]", name, properties.getOpenDuration());
+        reset(State.OPEN);
+        openedAtNanos = ticker.read();
+    }
+
+    private void reset(State newState) {
+        state = newState;
+        calls = 0;
+        failures = 0;
+        next = 0;
+        probesInFlight = 0;
+        probeSuccesses = 0;
+    }
+
+    // ******** Inner classes ********
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+}
@@ -0,0 +1,84 @@
+package com.branch.service.github.client;
+
+import com.branch.service.github.config.CircuitBreakerProperties;
+import com.branch.service.github.exception.DeadlineExceededException;
+import com.branch.service.github.exception.UpstreamUnavailableException;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+
+/**
+ * One {@link CircuitBreaker} per GitHub endpoint, so a failing repos endpoint doesn't take user lookups down with it.
+ * 5xx responses and I/O errors (including timeouts) count as failures; 4xx responses are GitHub working as intended.
+ * While a circuit is open calls fail fast with {@link UpstreamUnavailableException}, without spending a rate limit token
+ * or a concurrency permit.
+ */
+@Component
+public class CircuitBreakerInterceptor implements ClientHttpRequestInterceptor {
+    // ******** Properties ********
+    private final CircuitBreakerProperties properties;
+    private final Map<GitHubEndpoint, CircuitBreaker> breakers = new EnumMap<>(GitHubEndpoint.class);
+
+    // ******** Constructors ********
+    @Autowired
+    public CircuitBreakerInterceptor(CircuitBreakerProperties properties) {
+        this(properties, Ticker.systemTicker());
+    }
+
+    public CircuitBreakerInterceptor(CircuitBreakerProperties properties, Ticker ticker) {
+        this.properties = properties;
+        for (GitHubEndpoint endpoint : GitHubEndpoint.values()) {
+            breakers.put(endpoint, new CircuitBreaker(endpoint.tag(), properties, ticker));
+        }
+    }
+
+    // ******** Domain methods ********
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        if (!properties.isEnabled()) {
+            return execution.execute(request, body);
+        }
+        GitHubEndpoint endpoint = GitHubEndpoint.of(request.getURI().getPath());
+        CircuitBreaker breaker = breakers.get(endpoint);
+        if (!breaker.tryAcquire()) {
+            throw new UpstreamUnavailableException("GitHub [" + endpoint.tag() + "] circuit open", breaker.getSecondsUntilHalfOpen());
+        }
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (UpstreamUnavailableException | DeadlineExceededException e) {
+            breaker.onIgnored(); // <-- refused locally (rate limit / bulkhead / caller's deadline), GitHub wasn't called
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                breaker.onIgnored(); // <-- cancelled by us, says nothing about GitHub
+            } else {
+                breaker.onFailure();
+            }
+            throw e;
+        }
+        if (response.getStatusCode().is5xxServerError()) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+        return response;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public CircuitBreaker getCircuitBreaker(GitHubEndpoint endpoint) {
+        return breakers.get(endpoint);
+    }
+}
@@ -0,0 +1,129 @@
+package com.branch.service.github.client;
+
+import com.branch.service.github.config.ExecutorProperties;
+import com.branch.service.github.exception.DeadlineExceededException;
+import com.branch.service.github.exception.UpstreamUnavailableException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Caps the number of concurrent calls to GitHub across the whole service (a bulkhead). A permit is held from sending the
+ * request until the response is closed (i.e. the body has been read), so callers queue here rather than piling onto
+ * GitHub. Callers that can't get a permit within {@code max-concurrency-wait} fail fast instead of tying up threads.
+ */
+@Component
+public class ConcurrencyLimitInterceptor implements ClientHttpRequestInterceptor {
+    // ******** Properties ********
+    private final Semaphore permits;
+    private final Duration maxWait;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    // ******** Constructors ********
+    @Autowired
+    public ConcurrencyLimitInterceptor(ExecutorProperties executorProperties) {
+        this.permits = new Semaphore(executorProperties.getMaxConcurrency(), true);
+        this.maxWait = executorProperties.getMaxConcurrencyWait();
+    }
+
+    // ******** Domain methods ********
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        queued.incrementAndGet();
+        try {
+            Duration wait = UpstreamContext.capToDeadline(maxWait); // <-- no longer than the caller still waits
+            if (!permits.tryAcquire(wait.toNanos(), TimeUnit.NANOSECONDS)) {
+                if (wait.compareTo(maxWait) < 0) {
+                    throw new DeadlineExceededException("request deadline passed while waiting for a GitHub call permit");
+                }
+                throw new UpstreamUnavailableException("GitHub bulkhead full", 1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for a GitHub call permit");
+        } finally {
+            queued.decrementAndGet();
+        }
+        active.incrementAndGet();
+        try {
+            return new PermitReleasingResponse(execution.execute(request, body));
+        } catch (IOException | RuntimeException e) {
+            release();
+            throw e;
+        }
+    }
+
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    // ******** Private domain methods ********
+    private void release() {
+        active.decrementAndGet();
+        permits.release();
+    }
+
+    // ******** Inner classes ********
+    private class PermitReleasingResponse implements ClientHttpResponse {
+        // ******** Properties ********
+        private final ClientHttpResponse delegate;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        // ******** Constructors *******
+        PermitReleasingResponse(ClientHttpResponse delegate) {
+            this.delegate = delegate;
+        }
+
+        // ******** Domain methods ********
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    release();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.branch.service.github.client;
+
+import com.branch.service.github.config.SnapshotProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+
+/**
+ * Remembers the validators (ETag / Last-Modified) and parsed body of the last successful GitHub response per endpoint,
+ * so a refetch can be sent as a conditional request and a 304 can reuse the stored body. GitHub doesn't count 304s
+ * against the rate limit.
+ * <p>
+ * When {@link SnapshotStore} is enabled, responses (and 304s) are also written to disk, and read back on a miss (i.e. -
+ * after a restart). Those read back are reused without asking GitHub while younger than the snapshot fresh-for.
+ */
+@Component
+public class ConditionalRequestStore {
+    // ******** Properties ********
+    private Cache<String, StoredResponse<?>> responses;
+    @Value("${github.api.conditional-requests.enabled:true}")
+    private boolean enabled;
+    @Value("${github.api.conditional-requests.max-entries:20000}")
+    private long maxEntries;
+    @Value("${github.api.conditional-requests.fresh-for:0s}")
+    private Duration freshFor; // stored responses younger than this are reused without asking GitHub (0 = always revalidate)
+    // -- resources --
+    @Autowired
+    private SnapshotStore snapshotStore;
+    @Autowired
+    private SnapshotProperties snapshotProperties;
+
+    // ******** Initialization ********
+    @PostConstruct
+    private void init() {
+        this.responses = Caffeine.newBuilder().maximumSize(maxEntries).build();
+    }
+
+    // ******** Domain methods ********
+    @SuppressWarnings("unchecked")
+    public <T> StoredResponse<T> get(String key, ParameterizedTypeReference<T> bodyType) {
+        if (!enabled) {
+            return null;
+        }
+        StoredResponse<T> stored = (StoredResponse<T>) responses.getIfPresent(key);
+        if (stored == null && snapshotStore.isEnabled()) {
+            stored = snapshotStore.read(key, bodyType);
+            if (stored != null) {
+                responses.put(key, stored);
+            }
+        }
+        return stored;
+    }
+
+    // whether the stored response can be reused without asking GitHub: younger than fresh-for, or than the snapshot
+    // fresh-for while it's the copy read back from disk (i.e. - right after a restart)
+    public boolean isFresh(StoredResponse<?> stored) {
+        Duration window = (stored.restored() && snapshotProperties.getFreshFor().compareTo(freshFor) > 0) ? snapshotProperties.getFreshFor() : freshFor;
+        return System.currentTimeMillis() - stored.fetchedAt() < window.toMillis();
+    }
+
+    // whether get/put may touch the disk (snapshots on), i.e. - block
+    public boolean isPersistent() {
+        return enabled && snapshotStore.isEnabled();
+    }
+
+    public void put(String key, StoredResponse<?> response) {
+        if (enabled) {
+            responses.put(key, response);
+            snapshotStore.append(key, response);
+        }
+    }
+
+    // a 304 confirmed the stored response is still current (on disk, only its fetch time is appended)
+    public void revalidated(String key, StoredResponse<?> response) {
+        if (enabled) {
+            long now = System.currentTimeMillis();
+            responses.put(key, response.revalidatedAt(now));
+            snapshotStore.revalidated(key, now);
+        }
+    }
+
+    // ******** Inner classes ********
+    // restored = read back from a snapshot, and not revalidated since
+    public record StoredResponse<T>(String etag, String lastModified, String link, T body, long fetchedAt, boolean restored) {
+        public StoredResponse(String etag, String lastModified, String link, T body, long fetchedAt) {
+            this(etag, lastModified, link, body, fetchedAt, false);
+        }
+
+        public StoredResponse<T> revalidatedAt(long millis) {
+            return new StoredResponse<>(etag, lastModified, link, body, millis);
+        }
+
+        // the stored response as a 200 (with its Link header, for pagination)
+        public ResponseEntity<T> toEntity() {
+            HttpHeaders headers = new HttpHeaders();
+            if (link != null) {
+                headers.set(HttpHeaders.LINK, link);
+            }
+            return new ResponseEntity<>(body, headers, HttpStatus.OK);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.branch.service.github.client;
 
+import com.branch.service.github.client.ConditionalRequestStore.StoredResponse;
 import com.branch.service.github.exception.GitHubApiException;
 import com.branch.service.github.exception.UserNotFoundException;
 import com.branch.service.github.model.github.RepoResponse;
@@ -8,38 +9,81 @@ import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientException;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 
 @Component
 public class GitHubClient {
     // ******** Properties ********
     private static final Logger log = LoggerFactory.getLogger(GitHubClient.class);
+    private static final ParameterizedTypeReference<UserResponse> USER_TYPE = ParameterizedTypeReference.forType(UserResponse.class);
+    private static final ParameterizedTypeReference<List<RepoResponse>> REPO_LIST_TYPE = new ParameterizedTypeReference<>() {};
+    private static final Pattern LAST_PAGE_LINK = Pattern.compile("<[^>]*[?&]page=(\\d+)[^>]*>;\\s*rel=\"last\"");
     private RestClient restClient;
     @Value("${github.api.base-url}")
     private String baseUrl;
+    @Value("${github.api.repos.per-page:100}")
+    private int reposPerPage;
+    @Value("${github.api.repos.max-pages:10}")
+    private int reposMaxPages; // upper bound on pages fetched per user (i.e. - max repos = per-page * max-pages)
+    @Value("${github.api.repos.stream-max-pages:100}")
+    private int reposStreamMaxPages; // same, for streaming (memory doesn't grow with pages, only latency/rate limit)
     // -- resources --
     @Autowired
     private RestClient.Builder restClientBuilder;
+    @Autowired
+    private CircuitBreakerInterceptor circuitBreakerInterceptor;
+    @Autowired
+    private RateLimitScheduler rateLimitScheduler;
+    @Autowired
+    private ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+    @Autowired
+    private MetricsInterceptor metricsInterceptor;
+    @Autowired
+    @Qualifier("gitHubExecutor")
+    private AsyncTaskExecutor gitHubExecutor;
+    @Autowired
+    private ConditionalRequestStore conditionalRequestStore;
+    @Autowired
+    private Hedger hedger;
 
     // ******** Initialization ********
     @PostConstruct
     private void init() {
-        this.restClient = restClientBuilder.baseUrl(baseUrl).build();
+        // the builder comes with the pooled JDK HttpClient transport and timeouts (see HttpClientConfig)
+        this.restClient = restClientBuilder.baseUrl(baseUrl)
+            .configureMessageConverters(converters -> converters.addCustomConverter(new RepoListHttpMessageConverter())) // <-- ahead of Jackson databind
+            .requestInterceptor(circuitBreakerInterceptor) // <-- an open circuit fails fast, before spending a token or permit
+            .requestInterceptor(rateLimitScheduler) // <-- waits for a token before taking a concurrency permit
+            .requestInterceptor(concurrencyLimitInterceptor) // <-- waits for a permit first, so latency metrics exclude queueing
+            .requestInterceptor(metricsInterceptor)
+            .build();
     }
 
     // ******** Domain methods ********
     public UserResponse getUserInfo(String username) {
         log.debug("Calling GitHub API for user info for user [{}]", username);
         try {
-            return restClient.get().uri("/users/{username}", username).retrieve().body(UserResponse.class);
+            return getConditionally(GitHubEndpoint.USER, "user:" + key(username), USER_TYPE, "/users/{username}", username).getBody();
         } catch (HttpClientErrorException.NotFound e) {
             log.warn("User [{}] not found on GitHub", username);
             throw new UserNotFoundException(username);
@@ -52,13 +96,150 @@ public class GitHubClient {
     public List<RepoResponse> getUserRepos(String username) {
         log.debug("Calling GitHub API for user repos for user [{}]", username);
         try {
-            return restClient.get().uri("/users/{username}/repos", username).retrieve().body(new ParameterizedTypeReference<>() {});
+            // the first page tells us (via the Link header) how many pages there are
+            ResponseEntity<List<RepoResponse>> firstPage = getUserReposPage(username, 1);
+            List<RepoResponse> repos = new ArrayList<>(bodyOrEmpty(firstPage));
+            int lastPage = lastPage(firstPage.getHeaders());
+            if (lastPage > reposMaxPages) {
+                log.warn("User [{}] has [{}] pages of repos, only fetching the first [{}]", username, lastPage, reposMaxPages);
+                lastPage = reposMaxPages;
+            }
+            // fetch the remaining pages in parallel, then append them in page order
+            List<Future<List<RepoResponse>>> remainingPages = new ArrayList<>();
+            try {
+                for (int page = 2; page <= lastPage && !Thread.currentThread().isInterrupted(); page++) {
+                    remainingPages.add(getUserReposPageAsync(username, page));
+                }
+                for (Future<List<RepoResponse>> page : remainingPages) {
+                    repos.addAll(await(page));
+                }
+            } finally {
+                // no-op for the pages already fetched; stops the others when this call was cancelled or a page failed
+                remainingPages.forEach(page -> page.cancel(true));
+            }
+            return repos;
+        } catch (HttpClientErrorException.NotFound e) {
+            log.warn("User [{}] not found on GitHub", username);
+            throw new UserNotFoundException(username);
+        } catch (RestClientException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                log.debug("Fetching repos for user [{}] cancelled", username); // i.e. - the user lookup came back 404
+            } else {
+                log.error("Error fetching repos for user [{}]", username, e);
+            }
+            throw new GitHubApiException("Failed to fetch repos from GitHub", e);
+        }
+    }
+
+    /**
+     * Hands the user's repos to the consumer one page at a time, in page order, without holding on to earlier pages.
+     * The next page is fetched while the consumer handles the current one.
+     */
+    public void streamUserRepos(String username, Consumer<List<RepoResponse>> pageConsumer) {
+        log.debug("Streaming user repos from GitHub API for user [{}]", username);
+        try {
+            ResponseEntity<List<RepoResponse>> firstPage = getUserReposPage(username, 1);
+            int lastPage = Math.min(lastPage(firstPage.getHeaders()), reposStreamMaxPages);
+            Future<List<RepoResponse>> nextPage = (lastPage >= 2) ? getUserReposPageAsync(username, 2) : null;
+            try {
+                pageConsumer.accept(bodyOrEmpty(firstPage));
+                for (int page = 2; page <= lastPage; page++) {
+                    List<RepoResponse> repos = await(nextPage);
+                    nextPage = (page < lastPage) ? getUserReposPageAsync(username, page + 1) : null; // <-- prefetch one page ahead
+                    pageConsumer.accept(repos);
+                }
+            } finally {
+                if (nextPage != null) {
+                    nextPage.cancel(true); // <-- the client went away (or a page failed) with a page still being prefetched
+                }
+            }
         } catch (HttpClientErrorException.NotFound e) {
             log.warn("User [{}] not found on GitHub", username);
             throw new UserNotFoundException(username);
         } catch (RestClientException e) {
-            log.error("Error fetching repos for user [{}]", username, e);
+            log.error("Error streaming repos for user [{}]", username, e);
             throw new GitHubApiException("Failed to fetch repos from GitHub", e);
         }
     }
+
+    // ******** Private domain methods ********
+    // a Future (rather than a CompletableFuture) so that cancelling it interrupts the call
+    private Future<List<RepoResponse>> getUserReposPageAsync(String username, int page) {
+        return gitHubExecutor.submit(() -> bodyOrEmpty(getUserReposPage(username, page)));
+    }
+
+    private ResponseEntity<List<RepoResponse>> getUserReposPage(String username, int page) {
+        return getConditionally(GitHubEndpoint.REPOS, "repos:" + key(username) + ":" + page, REPO_LIST_TYPE,
+            "/users/{username}/repos?per_page={perPage}&page={page}", username, reposPerPage, page);
+    }
+
+    // sends If-None-Match / If-Modified-Since when we have a stored response, and reuses its body on a 304
+    private <T> ResponseEntity<T> getConditionally(GitHubEndpoint endpoint, String key, ParameterizedTypeReference<T> bodyType,
+                                                   String uri, Object... uriVariables) {
+        StoredResponse<T> stored = conditionalRequestStore.get(key, bodyType);
+        if (stored != null && conditionalRequestStore.isFresh(stored)) {
+            log.debug("GitHub response for [{}] still fresh, not revalidating", key);
+            return stored.toEntity();
+        }
+        UpstreamContext.checkDeadline(endpoint.tag()); // <-- nobody waits for the answer anymore, don't spend a token on it
+        ResponseEntity<T> response = hedger.call(endpoint, () -> restClient.get()
+            .uri(uri, uriVariables)
+            .headers(headers -> {
+                if (stored != null && stored.etag() != null) {
+                    headers.setIfNoneMatch(stored.etag());
+                } else if (stored != null && stored.lastModified() != null) {
+                    headers.set(HttpHeaders.IF_MODIFIED_SINCE, stored.lastModified());
+                }
+            })
+            .retrieve()
+            .toEntity(bodyType));
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED) && stored != null) {
+            log.debug("GitHub response for [{}] not modified, reusing stored body", key);
+            conditionalRequestStore.revalidated(key, stored);
+            return stored.toEntity();
+        }
+        String etag = response.getHeaders().getETag();
+        String lastModified = response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED);
+        if (etag != null || lastModified != null) {
+            String link = response.getHeaders().getFirst(HttpHeaders.LINK);
+            conditionalRequestStore.put(key, new StoredResponse<>(etag, lastModified, link, response.getBody(), System.currentTimeMillis()));
+        }
+        return response;
+    }
+
+    static String key(String username) {
+        return username.toLowerCase(Locale.ROOT); // GitHub usernames are case-insensitive
+    }
+
+    static int lastPage(HttpHeaders headers) {
+        // i.e. - <https://api.github.com/user/583231/repos?per_page=100&page=3>; rel="last" (no header = single page)
+        String link = headers.getFirst(HttpHeaders.LINK);
+        if (link == null) {
+            return 1;
+        }
+        Matcher matcher = LAST_PAGE_LINK.matcher(link);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : 1;
+    }
+
+    private static List<RepoResponse> bodyOrEmpty(ResponseEntity<List<RepoResponse>> response) {
+        return (response.getBody() != null) ? response.getBody() : List.of();
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            // rethrow the original exception so it is handled like a failure on the calling thread
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new GitHubApiException("Failed to fetch repos from GitHub", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // <-- this call was cancelled, its remaining pages are cancelled on the way out
+            throw new GitHubApiException("Fetching repos from GitHub interrupted", e);
+        }
+    }
 }
\ No newline at end of file
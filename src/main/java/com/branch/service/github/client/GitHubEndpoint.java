@@ -0,0 +1,27 @@
+package com.branch.service.github.client;
+
+import java.util.Locale;
+
+
+/**
+ * The GitHub endpoints this service calls, as a low-cardinality key (never the username) for metrics and circuit breakers.
+ */
+public enum GitHubEndpoint {
+    USER,
+    REPOS,
+    OTHER;
+
+    public static GitHubEndpoint of(String path) {
+        if (path.endsWith("/repos")) {
+            return REPOS;
+        }
+        if (path.startsWith("/users/")) {
+            return USER;
+        }
+        return OTHER;
+    }
+
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
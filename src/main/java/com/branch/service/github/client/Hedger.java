@@ -0,0 +1,223 @@
+package com.branch.service.github.client;
+
+import com.branch.service.github.client.UpstreamContext.Priority;
+import com.branch.service.github.config.HedgeProperties;
+import com.branch.service.github.exception.DeadlineExceededException;
+import com.branch.service.github.exception.GitHubApiException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+
+/**
+ * Hedged GitHub calls, against the occasional slow response that dominates tail latency: a call still running after the
+ * endpoint's recent {@code percentile} latency (p95 by default) gets a duplicate, and whichever answers first wins (the
+ * loser is interrupted, so it gives back its permit). Only a failure of both is a failure.
+ * <p>
+ * Each hedge is one more call against GitHub's rate limit, so hedges are paid from a token bucket that earns
+ * {@code max-ratio} per call (at most {@code burst} saved up), and background calls are never hedged. Hedges go through
+ * the same interceptors (rate limiter, bulkhead, circuit breaker) as any other call. Waits never outlast the caller's
+ * deadline ({@link UpstreamContext}), and both calls are interrupted once the caller stops waiting (deadline passed,
+ * or the caller itself interrupted).
+ */
+@Component
+public class Hedger {
+    // ******** Properties ********
+    private static final Logger log = LoggerFactory.getLogger(Hedger.class);
+    private static final int RECOMPUTE_EVERY = 16; // calls between two percentile computations
+    private final HedgeProperties properties;
+    private final AsyncTaskExecutor executor;
+    private final Map<GitHubEndpoint, LatencyWindow> latencies = new EnumMap<>(GitHubEndpoint.class);
+    private final Object budgetLock = new Object();
+    private double budget; // hedges that may be sent right now
+    private final LongAdder hedged = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    // ******** Constructors ********
+    @Autowired
+    public Hedger(HedgeProperties properties, @Qualifier("gitHubExecutor") AsyncTaskExecutor executor) {
+        this.properties = properties;
+        this.executor = executor;
+        for (GitHubEndpoint endpoint : GitHubEndpoint.values()) {
+            latencies.put(endpoint, new LatencyWindow(properties.getWindow()));
+        }
+        this.budget = properties.getBurst();
+    }
+
+    // ******** Domain methods ********
+    /**
+     * Runs the call (possibly twice, see above) and returns the first answer. Exceptions of the call are rethrown as-is.
+     */
+    public <T> T call(GitHubEndpoint endpoint, Supplier<T> call) {
+        Duration delay = hedgeDelay(endpoint);
+        if (delay == null) {
+            return timed(endpoint, call); // <-- on the caller's thread, as if there was no hedger
+        }
+        earn();
+        // submitted as Futures (not CompletableFutures) so that cancelling them interrupts the calls
+        CompletionService<T> race = new ExecutorCompletionService<>(executor);
+        List<Future<T>> attempts = new ArrayList<>(2);
+        try {
+            attempts.add(race.submit(() -> timed(endpoint, call)));
+            Future<T> done = poll(race, UpstreamContext.capToDeadline(delay));
+            if (done != null) {
+                return result(done);
+            }
+            UpstreamContext.checkDeadline(endpoint.tag()); // <-- slower than the percentile, or the deadline came first
+            if (tryTakeBudget()) {
+                log.debug("GitHub [{}] call slower than [{}], sending a hedge", endpoint.tag(), delay);
+                hedged.increment();
+                attempts.add(race.submit(() -> timed(endpoint, call)));
+            }
+            RuntimeException failure = null;
+            for (int pending = attempts.size(); pending > 0; pending--) {
+                done = poll(race, UpstreamContext.remaining());
+                if (done == null) {
+                    throw new DeadlineExceededException("request deadline passed while waiting on GitHub");
+                }
+                try {
+                    T result = result(done);
+                    if (done != attempts.get(0)) {
+                        hedgeWins.increment();
+                    }
+                    return result;
+                } catch (RuntimeException e) {
+                    failure = e; // <-- the other one may still answer
+                }
+            }
+            throw failure;
+        } finally {
+            attempts.forEach(attempt -> attempt.cancel(true)); // <-- no-op for the winner, interrupts the loser (or both)
+        }
+    }
+
+    // how long a call to the endpoint may take before it's hedged, or null when it won't be
+    public Duration hedgeDelay(GitHubEndpoint endpoint) {
+        if (!properties.isEnabled() || UpstreamContext.priority() == Priority.BACKGROUND) {
+            return null;
+        }
+        long percentileNanos = latencies.get(endpoint).percentile(properties.getPercentile(), properties.getMinSamples());
+        if (percentileNanos < 0) {
+            return null; // <-- not enough samples yet
+        }
+        Duration delay = Duration.ofNanos(percentileNanos);
+        return (delay.compareTo(properties.getMinDelay()) < 0) ? properties.getMinDelay() : delay;
+    }
+
+    public long getHedgedCount() {
+        return hedged.sum();
+    }
+
+    public long getHedgeWinCount() {
+        return hedgeWins.sum();
+    }
+
+    // ******** Private domain methods ********
+    private <T> T timed(GitHubEndpoint endpoint, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            if (!Thread.currentThread().isInterrupted()) {
+                latencies.get(endpoint).record(System.nanoTime() - start); // <-- a cancelled call's latency is unknown
+            }
+        }
+    }
+
+    private void earn() {
+        synchronized (budgetLock) {
+            budget = Math.min(properties.getBurst(), budget + properties.getMaxRatio());
+        }
+    }
+
+    private boolean tryTakeBudget() {
+        synchronized (budgetLock) {
+            if (budget < 1) {
+                return false;
+            }
+            budget -= 1;
+            return true;
+        }
+    }
+
+    // the next attempt to finish, or null when none did within the wait (null wait = no deadline, wait for one)
+    private static <T> Future<T> poll(CompletionService<T> race, Duration wait) {
+        try {
+            return (wait == null) ? race.take() : race.poll(Math.max(0, wait.toNanos()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // <-- the caller was cancelled, its calls are interrupted on the way out
+            throw new GitHubApiException("interrupted while waiting on GitHub", e);
+        }
+    }
+
+    // the answer of a finished attempt
+    private static <T> T result(Future<T> done) {
+        try {
+            return done.get();
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GitHubApiException("interrupted while waiting on GitHub", e);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new GitHubApiException("GitHub call failed", cause);
+    }
+
+    // ******** Inner classes ********
+    // the last N latencies of an endpoint, with their percentile recomputed every few calls
+    private static final class LatencyWindow {
+        private final long[] samples;
+        private long count;
+        private long computedAtCount = -1;
+        private long computed = -1;
+
+        private LatencyWindow(int size) {
+            this.samples = new long[size];
+        }
+
+        private synchronized void record(long nanos) {
+            samples[(int) (count % samples.length)] = nanos;
+            count++;
+        }
+
+        // -1 below minSamples
+        private synchronized long percentile(double percentile, int minSamples) {
+            if (count < minSamples) {
+                return -1;
+            }
+            if (computedAtCount < 0 || count - computedAtCount >= RECOMPUTE_EVERY) {
+                long[] sorted = Arrays.copyOf(samples, (int) Math.min(count, samples.length));
+                Arrays.sort(sorted);
+                computed = sorted[Math.max(0, (int) Math.ceil(percentile * sorted.length) - 1)];
+                computedAtCount = count;
+            }
+            return computed;
+        }
+    }
+}
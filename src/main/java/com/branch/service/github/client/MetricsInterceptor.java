@@ -0,0 +1,57 @@
+package com.branch.service.github.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+
+
+/**
+ * Records per-endpoint GitHub latency ({@code github.api.requests}, time to response headers, tagged by endpoint and
+ * status), timeouts ({@code github.api.timeouts}), and feeds the {@code X-RateLimit-*} headers to {@link RateLimitTracker}.
+ */
+@Component
+public class MetricsInterceptor implements ClientHttpRequestInterceptor {
+    // ******** Properties ********
+    // -- resources --
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private RateLimitTracker rateLimitTracker;
+
+    // ******** Domain methods ********
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        String endpoint = GitHubEndpoint.of(request.getURI().getPath()).tag();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            sample.stop(timer(endpoint, String.valueOf(response.getStatusCode().value())));
+            rateLimitTracker.update(response.getHeaders());
+            return response;
+        } catch (IOException e) {
+            sample.stop(timer(endpoint, Thread.currentThread().isInterrupted() ? "CANCELLED" : "IO_ERROR"));
+            if (e instanceof HttpTimeoutException || e instanceof SocketTimeoutException) {
+                meterRegistry.counter("github.api.timeouts", "endpoint", endpoint).increment();
+            }
+            throw e;
+        }
+    }
+
+    // ******** Private methods ********
+    private Timer timer(String endpoint, String status) {
+        return Timer.builder("github.api.requests")
+            .description("GitHub API latency (until response headers)")
+            .tag("endpoint", endpoint)
+            .tag("status", status)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,292 @@
+package com.branch.service.github.client;
+
+import com.branch.service.github.client.UpstreamContext.Priority;
+import com.branch.service.github.config.RateLimitProperties;
+import com.branch.service.github.exception.DeadlineExceededException;
+import com.branch.service.github.exception.RateLimitedException;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/**
+ * Paces all GitHub calls through a token bucket, so we stay at the highest rate GitHub will sustain instead of
+ * bursting into its primary/secondary rate limits:
+ * <ul>
+ *     <li>the refill rate is {@code requests-per-second}, lowered to what's left of the hourly budget
+ *     ({@code X-RateLimit-Remaining} spread over the time until {@code X-RateLimit-Reset})</li>
+ *     <li>a 403/429 rate limit response pauses all calls for {@code Retry-After} (or until the reset)</li>
+ *     <li>{@link Priority#BACKGROUND} calls wait behind user calls, and are refused once the remaining budget drops
+ *     below {@code background-reserve}</li>
+ * </ul>
+ * Calls that would wait longer than {@code max-wait} fail fast with {@link RateLimitedException} (503).
+ */
+@Component
+public class RateLimitScheduler implements ClientHttpRequestInterceptor {
+    // ******** Properties ********
+    private static final Logger log = LoggerFactory.getLogger(RateLimitScheduler.class);
+    private final RateLimitProperties properties;
+    private final RateLimitTracker rateLimitTracker;
+    private final Ticker ticker;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final LongAdder rejectedUser = new LongAdder();
+    private final LongAdder rejectedBackground = new LongAdder();
+    private final LongAdder spentUser = new LongAdder(); // calls that counted against GitHub's rate limit (i.e. - not 304s)
+    private final LongAdder spentBackground = new LongAdder();
+    private double tokens;
+    private long refilledAtNanos;
+    private long blockedUntilNanos;
+    private int waitingUsers;
+
+    // ******** Constructors ********
+    @Autowired
+    public RateLimitScheduler(RateLimitProperties properties, RateLimitTracker rateLimitTracker) {
+        this(properties, rateLimitTracker, Ticker.systemTicker());
+    }
+
+    public RateLimitScheduler(RateLimitProperties properties, RateLimitTracker rateLimitTracker, Ticker ticker) {
+        this.properties = properties;
+        this.rateLimitTracker = rateLimitTracker;
+        this.ticker = ticker;
+        this.tokens = properties.getBurst();
+        this.refilledAtNanos = ticker.read();
+        this.blockedUntilNanos = refilledAtNanos;
+    }
+
+    // ******** Domain methods ********
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        if (!properties.isEnabled()) {
+            return execution.execute(request, body);
+        }
+        Priority priority = UpstreamContext.priority();
+        try {
+            acquire(priority);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for the GitHub rate limit");
+        }
+        ClientHttpResponse response = execution.execute(request, body);
+        RateLimitedException rateLimited = onResponse(priority, request.getURI().getPath(), response.getStatusCode().value(), response.getHeaders());
+        if (rateLimited != null) {
+            response.close();
+            throw rateLimited;
+        }
+        return response;
+    }
+
+    /**
+     * Takes one token, waiting up to {@code max-wait} for it (less when the caller's deadline comes first).
+     */
+    public void acquire(Priority priority) throws InterruptedException {
+        Duration maxWait = UpstreamContext.capToDeadline(properties.getMaxWait());
+        boolean deadlineFirst = maxWait.compareTo(properties.getMaxWait()) < 0;
+        long deadline = ticker.read() + maxWait.toNanos();
+        lock.lock();
+        try {
+            if (priority == Priority.USER) {
+                waitingUsers++;
+            }
+            try {
+                while (true) {
+                    long now = ticker.read();
+                    refill(now);
+                    if (priority == Priority.BACKGROUND && budgetLow()) {
+                        throw reject(priority, secondsUntilReset());
+                    }
+                    long waitNanos;
+                    if (blockedUntilNanos > now) {
+                        waitNanos = blockedUntilNanos - now;
+                    } else if (priority == Priority.BACKGROUND && waitingUsers > 0) {
+                        waitNanos = (long) nanosPerToken(); // <-- let the waiting user calls go first
+                    } else if (tokens >= 1) {
+                        tokens -= 1;
+                        return;
+                    } else {
+                        waitNanos = (long) Math.ceil((1 - tokens) * nanosPerToken());
+                    }
+                    if (now + waitNanos > deadline) {
+                        if (deadlineFirst) {
+                            throw new DeadlineExceededException("request deadline passed while waiting for a GitHub rate limit token");
+                        }
+                        throw reject(priority, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+                    }
+                    changed.awaitNanos(waitNanos);
+                }
+            } finally {
+                if (priority == Priority.USER) {
+                    waitingUsers--;
+                    changed.signalAll();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #acquire(Priority)}, for callers that can't park a thread (see
+     * {@link ReactiveGitHubFilter}): takes one token now, possibly ahead of the refill, and returns how long to wait before
+     * using it (0 = go ahead). Later calls queue up behind the reservation. Refuses calls that would wait longer than
+     * {@code max-wait}, like {@link #acquire(Priority)}.
+     */
+    public long reserve(Priority priority) {
+        lock.lock();
+        try {
+            long now = ticker.read();
+            refill(now);
+            if (priority == Priority.BACKGROUND && budgetLow()) {
+                throw reject(priority, secondsUntilReset());
+            }
+            long waitNanos = Math.max(0, blockedUntilNanos - now);
+            if (tokens < 1) {
+                waitNanos = Math.max(waitNanos, (long) Math.ceil((1 - tokens) * nanosPerToken()));
+            }
+            if (waitNanos > properties.getMaxWait().toNanos()) {
+                throw reject(priority, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+            }
+            tokens -= 1; // <-- may go negative, the debt is paid by the refill
+            return waitNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // gives back the token of a reservation that was never used (i.e. - the caller went away during the wait)
+    public void cancelReservation() {
+        refund();
+    }
+
+    /**
+     * Books a GitHub response: refunds the token of a 304, counts the spend, and on a rate limit response pauses all
+     * calls and returns the exception for the caller to throw (null otherwise).
+     */
+    public RateLimitedException onResponse(Priority priority, String path, int status, HttpHeaders headers) {
+        if (status == 304) {
+            refund(); // <-- 304s don't count against GitHub's rate limit
+        } else {
+            (priority == Priority.USER ? spentUser : spentBackground).increment();
+        }
+        if (!isRateLimited(status, headers)) {
+            return null;
+        }
+        long waitSeconds = backoffSeconds(headers);
+        log.warn("GitHub rate limit hit [{}] for [{}], pausing GitHub calls for [{}s]", status, path, waitSeconds);
+        pause(waitSeconds);
+        return new RateLimitedException("GitHub rate limit exceeded", waitSeconds);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public double getAvailableTokens() {
+        lock.lock();
+        try {
+            refill(ticker.read());
+            return tokens;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRejectedCount(Priority priority) {
+        return (priority == Priority.USER) ? rejectedUser.sum() : rejectedBackground.sum();
+    }
+
+    public long getSpentCount(Priority priority) {
+        return (priority == Priority.USER) ? spentUser.sum() : spentBackground.sum();
+    }
+
+    // ******** Private domain methods ********
+    private void refill(long now) {
+        tokens = Math.min(properties.getBurst(), tokens + (now - refilledAtNanos) / nanosPerToken());
+        refilledAtNanos = now;
+        if (rateLimitTracker.getRemaining() == 0 && rateLimitTracker.getSecondsUntilReset() > 0) {
+            // hourly budget spent: nothing goes out until the window resets
+            blockedUntilNanos = Math.max(blockedUntilNanos, now + TimeUnit.SECONDS.toNanos(rateLimitTracker.getSecondsUntilReset()));
+        }
+    }
+
+    private double nanosPerToken() {
+        double rate = properties.getRequestsPerSecond();
+        long remaining = rateLimitTracker.getRemaining();
+        long untilReset = rateLimitTracker.getSecondsUntilReset();
+        if (remaining > 0 && untilReset > 0) {
+            rate = Math.min(rate, (double) remaining / untilReset); // <-- spread what's left evenly over the window
+        }
+        return TimeUnit.SECONDS.toNanos(1) / Math.max(rate, 0.001);
+    }
+
+    private boolean budgetLow() {
+        long limit = rateLimitTracker.getLimit();
+        long remaining = rateLimitTracker.getRemaining();
+        return limit > 0 && remaining >= 0 && remaining < limit * properties.getBackgroundReserve();
+    }
+
+    private long secondsUntilReset() {
+        return Math.max(1, rateLimitTracker.getSecondsUntilReset());
+    }
+
+    private RateLimitedException reject(Priority priority, long retryAfterSeconds) {
+        (priority == Priority.USER ? rejectedUser : rejectedBackground).increment();
+        log.debug("rejecting [{}] GitHub call, retry after [{}s]", priority, retryAfterSeconds);
+        return new RateLimitedException("GitHub rate limit budget exhausted", retryAfterSeconds);
+    }
+
+    private void refund() {
+        lock.lock();
+        try {
+            tokens = Math.min(properties.getBurst(), tokens + 1);
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void pause(long seconds) {
+        lock.lock();
+        try {
+            blockedUntilNanos = Math.max(blockedUntilNanos, ticker.read() + TimeUnit.SECONDS.toNanos(seconds));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 429, or a 403 that is a primary (budget spent) or secondary (Retry-After) rate limit rather than a permission error
+    private static boolean isRateLimited(int status, HttpHeaders headers) {
+        return status == 429
+            || (status == 403 && (headers.containsHeader(HttpHeaders.RETRY_AFTER) || "0".equals(headers.getFirst(RateLimitTracker.REMAINING))));
+    }
+
+    private long backoffSeconds(HttpHeaders headers) {
+        String retryAfter = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfter != null) {
+            try {
+                return Math.max(1, Long.parseLong(retryAfter.trim()));
+            } catch (NumberFormatException e) {
+                log.debug("ignoring non-numeric Retry-After [{}]", retryAfter);
+            }
+        }
+        if ("0".equals(headers.getFirst(RateLimitTracker.REMAINING)) && rateLimitTracker.getSecondsUntilReset() > 0) {
+            return rateLimitTracker.getSecondsUntilReset();
+        }
+        return properties.getSecondaryBackoff().toSeconds();
+    }
+}
@@ -0,0 +1,65 @@
+package com.branch.service.github.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+
+/**
+ * Latest GitHub rate-limit state, as reported by the {@code X-RateLimit-*} headers on every API response.
+ */
+@Component
+public class RateLimitTracker {
+    // ******** Properties ********
+    public static final String LIMIT = "X-RateLimit-Limit";
+    public static final String REMAINING = "X-RateLimit-Remaining";
+    public static final String RESET = "X-RateLimit-Reset";
+    private volatile long limit = -1; // -1 = unknown (no response seen yet)
+    private volatile long remaining = -1;
+    private volatile long resetEpochSecond = -1;
+
+    // ******** Domain methods ********
+    public void update(HttpHeaders headers) {
+        long newLimit = parse(headers.getFirst(LIMIT));
+        long newRemaining = parse(headers.getFirst(REMAINING));
+        long newReset = parse(headers.getFirst(RESET));
+        if (newLimit >= 0) {
+            limit = newLimit;
+        }
+        if (newRemaining >= 0) {
+            remaining = newRemaining;
+        }
+        if (newReset >= 0) {
+            resetEpochSecond = newReset;
+        }
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+
+    public long getRemaining() {
+        return remaining;
+    }
+
+    public long getResetEpochSecond() {
+        return resetEpochSecond;
+    }
+
+    public long getSecondsUntilReset() {
+        return (resetEpochSecond < 0) ? -1 : Math.max(0, resetEpochSecond - Instant.now().getEpochSecond());
+    }
+
+    // ******** Private methods ********
+    private static long parse(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
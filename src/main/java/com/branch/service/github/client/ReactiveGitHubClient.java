@@ -0,0 +1,176 @@
+package com.branch.service.github.client;
+
+import com.branch.service.github.client.ConditionalRequestStore.StoredResponse;
+import com.branch.service.github.client.UpstreamContext.Priority;
+import com.branch.service.github.exception.GitHubApiException;
+import com.branch.service.github.exception.UpstreamUnavailableException;
+import com.branch.service.github.exception.UserNotFoundException;
+import com.branch.service.github.model.github.RepoResponse;
+import com.branch.service.github.model.github.UserResponse;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+
+/**
+ * Non-blocking twin of {@link GitHubClient} for the reactive mode ({@code spring.main.web-application-type=reactive}):
+ * same endpoints, pagination, conditional requests and errors, on a {@link WebClient} whose calls wait on Netty event
+ * loops instead of threads. Rate limiting, circuit breakers and metrics are applied by {@link ReactiveGitHubFilter}.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveGitHubClient {
+    // ******** Properties ********
+    private static final Logger log = LoggerFactory.getLogger(ReactiveGitHubClient.class);
+    private static final ParameterizedTypeReference<UserResponse> USER_TYPE = ParameterizedTypeReference.forType(UserResponse.class);
+    private static final ParameterizedTypeReference<List<RepoResponse>> REPO_LIST_TYPE = new ParameterizedTypeReference<>() {};
+    // reactor-pool's refusals, by simple name: Reactor Netty shades them into an internal package that may move in any release
+    private static final Set<String> POOL_REFUSALS = Set.of("PoolAcquirePendingLimitException", "PoolAcquireTimeoutException");
+    private WebClient webClient;
+    private Scheduler storeScheduler; // <-- where the conditional request store is read and written (see init)
+    @Value("${github.api.base-url}")
+    private String baseUrl;
+    @Value("${github.api.repos.per-page:100}")
+    private int reposPerPage;
+    @Value("${github.api.repos.max-pages:10}")
+    private int reposMaxPages;
+    // -- resources --
+    @Autowired
+    private WebClient.Builder webClientBuilder;
+    @Autowired
+    private ReactorClientHttpConnector gitHubClientHttpConnector;
+    @Autowired
+    private ReactiveGitHubFilter reactiveGitHubFilter;
+    @Autowired
+    private ConditionalRequestStore conditionalRequestStore;
+
+    // ******** Initialization ********
+    @PostConstruct
+    private void init() {
+        this.webClient = webClientBuilder.clone()
+            .baseUrl(baseUrl)
+            .clientConnector(gitHubClientHttpConnector) // <-- pooled Reactor Netty transport (see HttpClientConfig)
+            .filter(reactiveGitHubFilter)
+            .codecs(codecs -> codecs.customCodecs().register(new RepoListDecoder())) // <-- streaming repo pages, ahead of Jackson databind
+            .build();
+        // with snapshots on, the store reads and writes files: never on an event loop
+        this.storeScheduler = conditionalRequestStore.isPersistent() ? Schedulers.boundedElastic() : Schedulers.immediate();
+    }
+
+    // ******** Domain methods ********
+    public Mono<UserResponse> getUserInfo(String username) {
+        return getConditionally("user:" + GitHubClient.key(username), USER_TYPE, "/users/{username}", username)
+            .mapNotNull(ResponseEntity::getBody)
+            .switchIfEmpty(Mono.error(() -> new GitHubApiException("Empty user info from GitHub", null)))
+            .onErrorMap(e -> translate(e, username, "Failed to fetch user info from GitHub"))
+            .contextWrite(context -> context.hasKey(Priority.class) ? context : context.put(Priority.class, UpstreamContext.priority()));
+    }
+
+    public Mono<List<RepoResponse>> getUserRepos(String username) {
+        return getUserReposPage(username, 1)
+            .flatMap(firstPage -> {
+                int lastPage = GitHubClient.lastPage(firstPage.getHeaders());
+                if (lastPage > reposMaxPages) {
+                    log.warn("User [{}] has [{}] pages of repos, only fetching the first [{}]", username, lastPage, reposMaxPages);
+                    lastPage = reposMaxPages;
+                }
+                // the remaining pages are fetched concurrently, and appended in page order
+                Flux<List<RepoResponse>> remainingPages = Flux.range(2, Math.max(0, lastPage - 1))
+                    .flatMapSequential(page -> getUserReposPage(username, page).map(ReactiveGitHubClient::bodyOrEmpty));
+                return Flux.concat(Mono.just(bodyOrEmpty(firstPage)), remainingPages)
+                    .flatMapIterable(repos -> repos)
+                    .collectList();
+            })
+            .onErrorMap(e -> translate(e, username, "Failed to fetch repos from GitHub"))
+            .contextWrite(context -> context.hasKey(Priority.class) ? context : context.put(Priority.class, UpstreamContext.priority()));
+    }
+
+    // ******** Private domain methods ********
+    private Mono<ResponseEntity<List<RepoResponse>>> getUserReposPage(String username, int page) {
+        return getConditionally("repos:" + GitHubClient.key(username) + ":" + page, REPO_LIST_TYPE,
+            "/users/{username}/repos?per_page={perPage}&page={page}", username, reposPerPage, page);
+    }
+
+    // same as GitHubClient.getConditionally: If-None-Match / If-Modified-Since, and the stored body on a 304
+    private <T> Mono<ResponseEntity<T>> getConditionally(String key, ParameterizedTypeReference<T> bodyType, String uri, Object... uriVariables) {
+        return Mono.fromCallable(() -> Optional.ofNullable(conditionalRequestStore.get(key, bodyType)))
+            .subscribeOn(storeScheduler)
+            .flatMap(found -> {
+                StoredResponse<T> stored = found.orElse(null);
+                if (stored != null && conditionalRequestStore.isFresh(stored)) {
+                    log.debug("GitHub response for [{}] still fresh, not revalidating", key);
+                    return Mono.just(stored.toEntity());
+                }
+                return webClient.get()
+                    .uri(uri, uriVariables)
+                    .headers(headers -> {
+                        if (stored != null && stored.etag() != null) {
+                            headers.setIfNoneMatch(stored.etag());
+                        } else if (stored != null && stored.lastModified() != null) {
+                            headers.set(HttpHeaders.IF_MODIFIED_SINCE, stored.lastModified());
+                        }
+                    })
+                    .retrieve()
+                    .toEntity(bodyType)
+                    .publishOn(storeScheduler) // <-- off the event loop before the store is written
+                    .map(response -> {
+                        if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED) && stored != null) {
+                            log.debug("GitHub response for [{}] not modified, reusing stored body", key);
+                            conditionalRequestStore.revalidated(key, stored);
+                            return stored.toEntity();
+                        }
+                        String etag = response.getHeaders().getETag();
+                        String lastModified = response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED);
+                        if (etag != null || lastModified != null) {
+                            String link = response.getHeaders().getFirst(HttpHeaders.LINK);
+                            conditionalRequestStore.put(key, new StoredResponse<>(etag, lastModified, link, response.getBody(), System.currentTimeMillis()));
+                        }
+                        return response;
+                    });
+            });
+    }
+
+    private static Throwable translate(Throwable e, String username, String message) {
+        if (e instanceof WebClientResponseException.NotFound) {
+            log.warn("User [{}] not found on GitHub", username);
+            return new UserNotFoundException(username);
+        }
+        if (e instanceof UserNotFoundException || e instanceof GitHubApiException) {
+            return e; // <-- already translated (i.e. - circuit open, rate limited)
+        }
+        if (isPoolRefusal(e)) {
+            return new UpstreamUnavailableException("GitHub bulkhead full", 1);
+        }
+        log.error("{} for user [{}]", message, username, e);
+        return new GitHubApiException(message, e);
+    }
+
+    // no connection (or place in the pending queue) within the pool limits, i.e. - the reactive bulkhead refused the call
+    static boolean isPoolRefusal(Throwable e) {
+        Throwable refusal = (e.getCause() != null) ? e.getCause() : e; // <-- wrapped by WebClient, raw in the filter chain
+        return POOL_REFUSALS.contains(refusal.getClass().getSimpleName());
+    }
+
+    private static List<RepoResponse> bodyOrEmpty(ResponseEntity<List<RepoResponse>> response) {
+        return (response.getBody() != null) ? response.getBody() : List.of();
+    }
+}
@@ -0,0 +1,151 @@
+package com.branch.service.github.client;
+
+import com.branch.service.github.client.UpstreamContext.Priority;
+import com.branch.service.github.exception.RateLimitedException;
+import com.branch.service.github.exception.UpstreamUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * The {@link GitHubClient} interceptor chain for {@link ReactiveGitHubClient}, without blocking: the endpoint's
+ * {@link CircuitBreaker} fails fast when open, {@link RateLimitScheduler} hands out a token reservation that's waited
+ * for with a timer instead of a parked thread, and latency/rate limit headers are recorded like
+ * {@link MetricsInterceptor} does. The priority is read from the Reactor context ({@code Priority.class} key, user by
+ * default). The bulkhead is the connection pool (see {@code github.http.max-connections}).
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveGitHubFilter implements ExchangeFilterFunction {
+    // ******** Properties ********
+    // -- resources --
+    @Autowired
+    private CircuitBreakerInterceptor circuitBreakerInterceptor;
+    @Autowired
+    private RateLimitScheduler rateLimitScheduler;
+    @Autowired
+    private RateLimitTracker rateLimitTracker;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // ******** Domain methods ********
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.deferContextual(context -> {
+            Priority priority = context.getOrDefault(Priority.class, Priority.USER);
+            GitHubEndpoint endpoint = GitHubEndpoint.of(request.url().getPath());
+            CircuitBreaker breaker = circuitBreakerInterceptor.isEnabled() ? circuitBreakerInterceptor.getCircuitBreaker(endpoint) : null;
+            if (breaker != null && !breaker.tryAcquire()) {
+                return Mono.error(new UpstreamUnavailableException("GitHub [" + endpoint.tag() + "] circuit open", breaker.getSecondsUntilHalfOpen()));
+            }
+            Verdict verdict = new Verdict(breaker);
+            long waitNanos;
+            try {
+                waitNanos = rateLimitScheduler.isEnabled() ? rateLimitScheduler.reserve(priority) : 0;
+            } catch (RateLimitedException e) {
+                verdict.ignored(); // <-- refused locally, GitHub wasn't called
+                return Mono.error(e);
+            }
+            AtomicBoolean sent = new AtomicBoolean();
+            Mono<ClientResponse> call = Mono.defer(() -> {
+                sent.set(true);
+                return exchange(request, next, endpoint, priority, verdict);
+            });
+            return ((waitNanos > 0) ? Mono.delay(Duration.ofNanos(waitNanos)).then(call) : call)
+                .doOnCancel(() -> {
+                    // the caller went away (i.e. - the other half of the profile failed, or its deadline passed), maybe
+                    // still waiting for its rate limit token: no verdict, and the token goes back if it wasn't used
+                    if (!sent.get() && rateLimitScheduler.isEnabled()) {
+                        rateLimitScheduler.cancelReservation();
+                    }
+                    verdict.ignored();
+                });
+        });
+    }
+
+    // ******** Private methods ********
+    private Mono<ClientResponse> exchange(ClientRequest request, ExchangeFunction next, GitHubEndpoint endpoint, Priority priority, Verdict verdict) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return next.exchange(request)
+            .flatMap(response -> {
+                int status = response.statusCode().value();
+                sample.stop(timer(endpoint, String.valueOf(status)));
+                rateLimitTracker.update(response.headers().asHttpHeaders());
+                RateLimitedException rateLimited = rateLimitScheduler.isEnabled()
+                    ? rateLimitScheduler.onResponse(priority, request.url().getPath(), status, response.headers().asHttpHeaders())
+                    : null;
+                if (rateLimited != null) {
+                    verdict.ignored();
+                } else if (response.statusCode().is5xxServerError()) {
+                    verdict.failure();
+                } else {
+                    verdict.success();
+                }
+                return (rateLimited != null) ? response.releaseBody().then(Mono.error(rateLimited)) : Mono.just(response);
+            })
+            .doOnError(e -> {
+                if (e instanceof RateLimitedException) {
+                    return; // <-- already booked above
+                }
+                if (ReactiveGitHubClient.isPoolRefusal(e)) {
+                    verdict.ignored(); // <-- refused by our connection pool (the bulkhead), GitHub wasn't called
+                    return;
+                }
+                sample.stop(timer(endpoint, "IO_ERROR"));
+                if (e.getCause() instanceof ReadTimeoutException || e instanceof TimeoutException || e.getCause() instanceof TimeoutException) {
+                    meterRegistry.counter("github.api.timeouts", "endpoint", endpoint.tag()).increment();
+                }
+                verdict.failure();
+            });
+    }
+
+    private Timer timer(GitHubEndpoint endpoint, String status) {
+        return Timer.builder("github.api.requests")
+            .description("GitHub API latency (until response headers)")
+            .tag("endpoint", endpoint.tag())
+            .tag("status", status)
+            .register(meterRegistry);
+    }
+
+    // ******** Inner classes ********
+    // the breaker's verdict on one call, given once (a cancel can race the response), so a half-open probe slot is always returned
+    private static final class Verdict {
+        private final CircuitBreaker breaker; // <-- null = circuit breaker disabled
+        private final AtomicBoolean given = new AtomicBoolean();
+
+        private Verdict(CircuitBreaker breaker) {
+            this.breaker = breaker;
+        }
+
+        private void success() {
+            if (breaker != null && given.compareAndSet(false, true)) {
+                breaker.onSuccess();
+            }
+        }
+
+        private void failure() {
+            if (breaker != null && given.compareAndSet(false, true)) {
+                breaker.onFailure();
+            }
+        }
+
+        private void ignored() {
+            if (breaker != null && given.compareAndSet(false, true)) {
+                breaker.onIgnored();
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.branch.service.github.client;
+
+import com.branch.service.github.model.github.RepoResponse;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractDataBufferDecoder;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import tools.jackson.core.JacksonException;
+
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * {@link RepoListHttpMessageConverter} for {@link ReactiveGitHubClient}: the page is aggregated, then read with the
+ * same streaming parser. The aggregation limit is well above a full page (100 repos are ~600KB of JSON), unlike the
+ * 256KB codec default.
+ */
+public class RepoListDecoder extends AbstractDataBufferDecoder<List<RepoResponse>> {
+    // ******** Properties ********
+    private static final int MAX_PAGE_BYTES = 8 * 1024 * 1024;
+
+    // ******** Constructors ********
+    public RepoListDecoder() {
+        super(MimeTypeUtils.APPLICATION_JSON);
+        setMaxInMemorySize(MAX_PAGE_BYTES);
+    }
+
+    // ******** Domain methods ********
+    @Override
+    public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+        return RepoListHttpMessageConverter.isRepoList(elementType) && super.canDecode(elementType, mimeType);
+    }
+
+    @Override
+    public List<RepoResponse> decode(DataBuffer buffer, ResolvableType targetType, MimeType mimeType, Map<String, Object> hints) {
+        try {
+            return RepoListHttpMessageConverter.readRepos(buffer.asInputStream());
+        } catch (JacksonException e) {
+            throw new DecodingException("Malformed GitHub repo list: " + e.getOriginalMessage(), e);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.branch.service.github.client;
+
+import com.branch.service.github.model.github.RepoResponse;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractSmartHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.core.ObjectReadContext;
+import tools.jackson.core.exc.StreamReadException;
+import tools.jackson.core.json.JsonFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Reads a page of GitHub repos ({@code /users/{username}/repos}) with the Jackson streaming parser instead of databind:
+ * {@code name} and {@code url} go straight into {@link RepoResponse} records, and every other property (~100 per repo,
+ * with nested owner, permissions and license objects) is skipped token by token without being materialized.
+ * Registered ahead of the JSON converter in {@link GitHubClient}, read-only.
+ */
+public class RepoListHttpMessageConverter extends AbstractSmartHttpMessageConverter<List<RepoResponse>> {
+    // ******** Properties ********
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder().build();
+
+    // ******** Constructors ********
+    public RepoListHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    // ******** Domain methods ********
+    @Override
+    public boolean canRead(ResolvableType type, MediaType mediaType) {
+        return isRepoList(type) && canRead(mediaType);
+    }
+
+    @Override
+    public List<RepoResponse> read(ResolvableType type, HttpInputMessage inputMessage, Map<String, Object> hints) throws IOException {
+        try {
+            return readRepos(inputMessage.getBody());
+        } catch (JacksonException e) {
+            throw new HttpMessageNotReadableException("Malformed GitHub repo list: " + e.getOriginalMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    public boolean canWrite(ResolvableType type, Class<?> valueClass, MediaType mediaType) {
+        return false;
+    }
+
+    // never called: canWrite is always false, so RestClient never picks this converter for a request body
+    @Override
+    protected void writeInternal(List<RepoResponse> repos, ResolvableType type, HttpOutputMessage outputMessage, Map<String, Object> hints) {
+    }
+
+    // the JSON array of repos, closing the stream (i.e. - [{"id": 1296269, "name": "Hello-World", "url": "...", ...}, ...])
+    public static List<RepoResponse> readRepos(InputStream body) {
+        try (JsonParser parser = JSON_FACTORY.createParser(ObjectReadContext.empty(), body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new StreamReadException(parser, "expected an array of repos");
+            }
+            List<RepoResponse> repos = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new StreamReadException(parser, "expected a repo object, got [" + token + "]");
+                }
+                repos.add(readRepo(parser));
+            }
+            return repos;
+        }
+    }
+
+    static boolean isRepoList(ResolvableType type) {
+        return type.toClass() == List.class && type.getGeneric(0).toClass() == RepoResponse.class;
+    }
+
+    // ******** Private domain methods ********
+    private static RepoResponse readRepo(JsonParser parser) {
+        String name = null;
+        String url = null;
+        String property;
+        while ((property = parser.nextName()) != null) { // <-- canonicalized names, no String allocated per property
+            parser.nextToken();
+            switch (property) {
+                case "name" -> name = parser.getValueAsString();
+                case "url" -> url = parser.getValueAsString();
+                default -> parser.skipChildren(); // <-- no-op on scalars, skips nested objects/arrays whole
+            }
+        }
+        return new RepoResponse(name, url);
+    }
+}
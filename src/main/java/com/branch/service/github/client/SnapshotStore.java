@@ -0,0 +1,310 @@
+package com.branch.service.github.client;
+
+import com.branch.service.github.client.ConditionalRequestStore.StoredResponse;
+import com.branch.service.github.config.SnapshotProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.JavaType;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Append-only file of GitHub response snapshots (validators, fetch time and parsed body), so that a restarted instance
+ * still has what it needs to revalidate with {@code If-None-Match} (a 304 is free rate limit wise) instead of starting
+ * cold.
+ * <p>
+ * Each record is {@code [key length][key][fetched at][body length][body JSON]}; a later record for the same key
+ * supersedes earlier ones. A record without a body (length 0) is a revalidation (a 304): it only moves the fetch time
+ * of the key's latest body forward. Loading is lazy: the first lookup scans the keys to build an offset index (bodies
+ * are skipped), and a body is only read and parsed when its key is asked for.
+ * <p>
+ * Once the file is larger than {@code compact-above} (and at least twice its size after the last compaction), it's
+ * rewritten with the live records only: when loaded, or by the append that crosses the line.
+ */
+@Component
+public class SnapshotStore {
+    // ******** Properties ********
+    private static final Logger log = LoggerFactory.getLogger(SnapshotStore.class);
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES + Integer.BYTES;
+    private final Object writeLock = new Object();
+    private volatile Segment segment; // the file and its index (null until first use)
+    private FileChannel channel; // <-- the file before its index is loaded
+    private long end;
+    private long compactedEnd; // file size after the last load or compaction
+    // -- resources --
+    @Autowired
+    private SnapshotProperties snapshotProperties;
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    // ******** Initialization ********
+    @PostConstruct
+    private void init() throws IOException {
+        if (!snapshotProperties.isEnabled()) {
+            return;
+        }
+        Path file = snapshotProperties.getFile().toAbsolutePath();
+        Files.createDirectories(file.getParent());
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        end = channel.size();
+        log.info("GitHub snapshots in [{}] ([{}] bytes)", file, end);
+    }
+
+    @PreDestroy
+    private void close() throws IOException {
+        FileChannel current = (segment != null) ? segment.channel() : channel;
+        if (current != null && current.isOpen()) {
+            current.force(false);
+            current.close();
+        }
+    }
+
+    // ******** Domain methods ********
+    public boolean isEnabled() {
+        return channel != null;
+    }
+
+    /**
+     * The latest snapshot for the key (fetch time included, i.e. - its last revalidation), or null when there is none,
+     * or it's older than max-age.
+     */
+    public <T> StoredResponse<T> read(String key, ParameterizedTypeReference<T> bodyType) {
+        if (!isEnabled()) {
+            return null;
+        }
+        Segment current = segment();
+        Indexed indexed = current.index().get(key);
+        if (indexed == null || isTooOld(indexed.fetchedAt())) {
+            return null;
+        }
+        try {
+            long offset = indexed.offset();
+            int keyLength = readFully(current.channel(), offset, Integer.BYTES).getInt();
+            int bodyLength = readFully(current.channel(), offset + Integer.BYTES + keyLength + Long.BYTES, Integer.BYTES).getInt();
+            byte[] body = readFully(current.channel(), offset + Integer.BYTES + keyLength + Long.BYTES + Integer.BYTES, bodyLength).array();
+            JavaType type = jsonMapper.getTypeFactory().constructParametricType(Snapshot.class,
+                jsonMapper.getTypeFactory().constructType(bodyType.getType()));
+            Snapshot<T> snapshot = jsonMapper.readValue(body, type);
+            return new StoredResponse<>(snapshot.etag(), snapshot.lastModified(), snapshot.link(), snapshot.body(), indexed.fetchedAt(), true);
+        } catch (ClosedChannelException e) {
+            log.debug("GitHub snapshot file swapped or closed while reading [{}], ignoring it", key);
+            return null; // <-- compacted meanwhile, or the reading thread was interrupted (i.e. - a cancelled call)
+        } catch (IOException | RuntimeException e) {
+            log.warn("unable to read GitHub snapshot [{}], ignoring it", key, e);
+            return null;
+        }
+    }
+
+    public void append(String key, StoredResponse<?> response) {
+        if (!isEnabled()) {
+            return;
+        }
+        byte[] body = jsonMapper.writeValueAsBytes(new Snapshot<>(response.etag(), response.lastModified(), response.link(), response.body()));
+        synchronized (writeLock) {
+            Segment current = segment();
+            long offset = write(current, key, response.fetchedAt(), body);
+            if (offset >= 0) {
+                current.index().put(key, new Indexed(offset, response.fetchedAt()));
+                compactIfGrown(current);
+            }
+        }
+    }
+
+    // a 304 for the key: a record without a body moves the fetch time of the one on disk forward
+    public void revalidated(String key, long fetchedAt) {
+        if (!isEnabled()) {
+            return;
+        }
+        synchronized (writeLock) {
+            Segment current = segment();
+            Indexed indexed = current.index().get(key);
+            if (indexed == null) {
+                return; // <-- no body on disk to revalidate
+            }
+            if (write(current, key, fetchedAt, new byte[0]) >= 0) {
+                current.index().put(key, new Indexed(indexed.offset(), fetchedAt));
+                compactIfGrown(current);
+            }
+        }
+    }
+
+    // ******** Private domain methods ********
+    // appends one record, returns its offset (-1 when it couldn't be written); under the write lock
+    private long write(Segment current, String key, long fetchedAt, byte[] body) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + keyBytes.length + body.length)
+            .putInt(keyBytes.length).put(keyBytes).putLong(fetchedAt).putInt(body.length).put(body)
+            .flip();
+        long offset = end;
+        try {
+            while (record.hasRemaining()) {
+                current.channel().write(record, offset + record.position());
+            }
+        } catch (IOException e) {
+            log.warn("unable to write GitHub snapshot [{}]", key, e);
+            return -1;
+        }
+        end = offset + record.limit();
+        return offset;
+    }
+
+    // under the write lock
+    private void compactIfGrown(Segment current) {
+        if (end > snapshotProperties.getCompactAbove().toBytes() && end >= 2 * compactedEnd) { // <-- a large live set isn't rewritten on every append
+            try {
+                segment = compact(current);
+            } catch (UncheckedIOException e) {
+                log.warn("unable to compact GitHub snapshots, will retry on a later append", e);
+                compactedEnd = end;
+            }
+        }
+    }
+
+    private Segment segment() {
+        Segment current = segment;
+        if (current == null || !current.channel().isOpen()) {
+            synchronized (writeLock) {
+                current = segment;
+                if (current == null) {
+                    current = load();
+                } else if (!current.channel().isOpen()) {
+                    current = reopen(current); // <-- an interrupted read or write closes a FileChannel for everyone
+                }
+                segment = current;
+            }
+        }
+        return current;
+    }
+
+    private Segment reopen(Segment closed) {
+        try {
+            log.debug("GitHub snapshot file closed by an interrupted thread, reopening it");
+            return new Segment(FileChannel.open(snapshotProperties.getFile().toAbsolutePath(), StandardOpenOption.READ, StandardOpenOption.WRITE), closed.index());
+        } catch (IOException e) {
+            throw new UncheckedIOException("unable to reopen GitHub snapshots", e);
+        }
+    }
+
+    // scans record headers only; a torn record at the end (i.e. - crash mid-write) is cut off
+    private Segment load() {
+        Map<String, Indexed> offsets = new ConcurrentHashMap<>();
+        long offset = 0;
+        int records = 0;
+        try {
+            long size = channel.size();
+            while (offset + HEADER_BYTES <= size) {
+                int keyLength = readFully(channel, offset, Integer.BYTES).getInt();
+                if (keyLength <= 0 || offset + HEADER_BYTES + keyLength > size) {
+                    break;
+                }
+                String key = StandardCharsets.UTF_8.decode(readFully(channel, offset + Integer.BYTES, keyLength)).toString();
+                ByteBuffer meta = readFully(channel, offset + Integer.BYTES + keyLength, Long.BYTES + Integer.BYTES);
+                long fetchedAt = meta.getLong();
+                int bodyLength = meta.getInt();
+                long next = offset + HEADER_BYTES + keyLength + bodyLength;
+                if (bodyLength < 0 || next > size) {
+                    break;
+                }
+                Indexed previous = offsets.get(key);
+                if (bodyLength > 0) {
+                    offsets.put(key, new Indexed(offset, fetchedAt));
+                } else if (previous != null) {
+                    offsets.put(key, new Indexed(previous.offset(), fetchedAt)); // <-- a 304: same body, later fetch time
+                }
+                offset = next;
+                records++;
+            }
+            if (offset < size) {
+                log.warn("truncating torn GitHub snapshot record at [{}] (file size [{}])", offset, size);
+                channel.truncate(offset);
+            }
+            end = offset;
+        } catch (IOException e) {
+            throw new UncheckedIOException("unable to load GitHub snapshots", e);
+        }
+        offsets.values().removeIf(indexed -> isTooOld(indexed.fetchedAt())); // <-- after the scan, a later 304 may have kept one
+        log.info("loaded [{}] GitHub snapshots ([{}] records)", offsets.size(), records);
+        compactedEnd = end;
+        Segment loaded = new Segment(channel, offsets);
+        return (end > snapshotProperties.getCompactAbove().toBytes()) ? compact(loaded) : loaded;
+    }
+
+    // rewrites the live records (latest per key, not too old, revalidations folded in) into a new file, then swaps it
+    // in; under the write lock
+    private Segment compact(Segment current) {
+        Path file = snapshotProperties.getFile().toAbsolutePath();
+        Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        Map<String, Indexed> newOffsets = new ConcurrentHashMap<>();
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long position = 0;
+            for (Map.Entry<String, Indexed> entry : current.index().entrySet()) {
+                Indexed indexed = entry.getValue();
+                if (isTooOld(indexed.fetchedAt())) {
+                    continue;
+                }
+                int keyLength = readFully(current.channel(), indexed.offset(), Integer.BYTES).getInt();
+                int bodyLength = readFully(current.channel(), indexed.offset() + Integer.BYTES + keyLength + Long.BYTES, Integer.BYTES).getInt();
+                ByteBuffer record = readFully(current.channel(), indexed.offset(), HEADER_BYTES + keyLength + bodyLength);
+                record.putLong(Integer.BYTES + keyLength, indexed.fetchedAt()); // <-- the latest revalidation
+                while (record.hasRemaining()) {
+                    out.write(record, position + record.position());
+                }
+                newOffsets.put(entry.getKey(), new Indexed(position, indexed.fetchedAt()));
+                position += record.limit();
+            }
+            out.force(false);
+            Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            FileChannel newChannel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            current.channel().close(); // <-- readers still on it get a ClosedChannelException, i.e. - a miss
+            log.info("compacted GitHub snapshots from [{}] to [{}] bytes", end, position);
+            end = position;
+            compactedEnd = position;
+            return new Segment(newChannel, newOffsets);
+        } catch (IOException e) {
+            throw new UncheckedIOException("unable to compact GitHub snapshots", e);
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("unexpected end of snapshot file at [" + position + "]");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private boolean isTooOld(long fetchedAtMillis) {
+        return Instant.ofEpochMilli(fetchedAtMillis).plus(snapshotProperties.getMaxAge()).isBefore(Instant.now());
+    }
+
+    // ******** Inner classes ********
+    // what is written as the body JSON (the fetch time is in the record header, so the index scan can read it)
+    record Snapshot<T>(String etag, String lastModified, String link, T body) {}
+
+    // a file with the index of its records (key -> its latest body), swapped together on compaction
+    private record Segment(FileChannel channel, Map<String, Indexed> index) {}
+
+    // where the key's latest body is, and when it was last fetched or revalidated
+    private record Indexed(long offset, long fetchedAt) {}
+}
@@ -0,0 +1,109 @@
+package com.branch.service.github.client;
+
+import com.branch.service.github.exception.DeadlineExceededException;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+
+/**
+ * Per-request context for GitHub calls, carried in thread locals: the caller's {@link Priority} and deadline.
+ * {@code gitHubExecutor} copies it onto the threads it runs tasks on (see {@link #wrap(Runnable)}), so it follows the
+ * fan-out of a request.
+ */
+public final class UpstreamContext {
+    // ******** Properties ********
+    private static final ThreadLocal<Priority> PRIORITY = new ThreadLocal<>();
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>(); // System.nanoTime() by which the caller needs an answer
+
+    // ******** Constructors *******
+    private UpstreamContext() {
+    }
+
+    // ******** Domain methods ********
+    public static Priority priority() {
+        Priority priority = PRIORITY.get();
+        return (priority != null) ? priority : Priority.USER;
+    }
+
+    public static <T> T callAs(Priority priority, Supplier<T> call) {
+        Priority previous = PRIORITY.get();
+        PRIORITY.set(priority);
+        try {
+            return call.get();
+        } finally {
+            restore(PRIORITY, previous);
+        }
+    }
+
+    // runs the call with a deadline of now + timeout (null = no deadline), i.e. - for the GitHub calls it makes
+    public static <T> T callWithin(Duration timeout, Supplier<T> call) {
+        Long previous = DEADLINE.get();
+        if (timeout != null) {
+            DEADLINE.set(System.nanoTime() + timeout.toNanos());
+        } else {
+            DEADLINE.remove();
+        }
+        try {
+            return call.get();
+        } finally {
+            restore(DEADLINE, previous);
+        }
+    }
+
+    // time left before the deadline (zero or negative once it has passed), or null when there is no deadline
+    public static Duration remaining() {
+        Long deadline = DEADLINE.get();
+        return (deadline != null) ? Duration.ofNanos(deadline - System.nanoTime()) : null;
+    }
+
+    // the wait, cut short to the time left before the deadline (never negative)
+    public static Duration capToDeadline(Duration wait) {
+        Duration remaining = remaining();
+        if (remaining == null || remaining.compareTo(wait) >= 0) {
+            return wait;
+        }
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    // fails fast once the deadline has passed, so no rate limit token or permit is spent on an answer nobody waits for
+    public static void checkDeadline(String call) {
+        Duration remaining = remaining();
+        if (remaining != null && !remaining.isPositive()) {
+            throw new DeadlineExceededException("request deadline passed before calling GitHub [" + call + "]");
+        }
+    }
+
+    // captures the caller's context for a task that runs on another thread (used as gitHubExecutor's TaskDecorator)
+    public static Runnable wrap(Runnable task) {
+        Priority capturedPriority = PRIORITY.get();
+        Long capturedDeadline = DEADLINE.get();
+        return () -> {
+            Priority previousPriority = PRIORITY.get();
+            Long previousDeadline = DEADLINE.get();
+            restore(PRIORITY, capturedPriority);
+            restore(DEADLINE, capturedDeadline);
+            try {
+                task.run();
+            } finally {
+                restore(PRIORITY, previousPriority);
+                restore(DEADLINE, previousDeadline);
+            }
+        };
+    }
+
+    // ******** Private domain methods ********
+    private static <T> void restore(ThreadLocal<T> local, T previous) {
+        if (previous != null) {
+            local.set(previous);
+        } else {
+            local.remove();
+        }
+    }
+
+    // ******** Inner classes ********
+    public enum Priority {
+        USER, // a client is waiting on the result
+        BACKGROUND // cache refreshes, pre-warming: first to be throttled when the rate limit budget runs low
+    }
+}
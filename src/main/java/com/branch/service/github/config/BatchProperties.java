@@ -0,0 +1,18 @@
+package com.branch.service.github.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "github.batch")
+public class BatchProperties {
+    // ******** Properties ********
+    private int maxUsernames = 100; // max distinct usernames per batch request
+    private int maxParallelism = 16; // max profiles fetched concurrently per batch request
+    private Duration timeout = Duration.ofSeconds(5); // profiles not ready by then are returned as 504
+}
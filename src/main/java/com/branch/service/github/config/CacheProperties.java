@@ -0,0 +1,39 @@
+package com.branch.service.github.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "github.cache")
+public class CacheProperties {
+    // ******** Properties ********
+    private boolean enabled = true;
+    private long maxSize = 10_000;
+    private Duration ttl = Duration.ofSeconds(60); // profile is served as-is for this long
+    private Duration staleTtl = Duration.ofMinutes(10); // after ttl, profile is still served (and refreshed in the background) for this long
+    private Duration lastGoodTtl = Duration.ofHours(1); // last complete profile is kept this long, to be served (as partial) while GitHub is down
+    private Duration notFoundTtl = Duration.ofSeconds(30); // a username GitHub answered 404 for is answered 404 without asking again for this long
+    private long notFoundMaxSize = 10_000;
+    private Shared shared = new Shared(); // cache shared by all replicas, behind the local (near) cache
+
+    // ******** Inner classes ********
+    public enum SharedType { NONE, MEMORY, REDIS }
+
+    @Setter
+    @Getter
+    public static class Shared {
+        // ******** Properties ********
+        private SharedType type = SharedType.NONE; // memory = in-process stand-in (single instance, tests), see SharedCacheConfig
+        private String redisUri = "redis://localhost:6379";
+        private Duration timeout = Duration.ofMillis(200); // per Redis command, past it the shared tier counts as a miss
+        private String keyPrefix = "github:profile:";
+        private String channel = "github:profile:invalidations"; // pub/sub channel, replicas drop their local copy of these keys
+        private Duration lease = Duration.ofSeconds(10); // one replica at a time fetches a username from GitHub, for at most this long
+        private Duration missWait = Duration.ofSeconds(2); // on a miss, wait this long for the replica holding the lease before fetching anyway
+    }
+}
@@ -0,0 +1,21 @@
+package com.branch.service.github.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "github.circuit-breaker")
+public class CircuitBreakerProperties {
+    // ******** Properties ********
+    private boolean enabled = true;
+    private int windowSize = 20; // outcomes of the last N calls (per endpoint) used for the failure rate
+    private int minimumCalls = 10; // don't open on a handful of calls
+    private double failureRateThreshold = 0.5; // opens at or above this share of failed calls
+    private Duration openDuration = Duration.ofSeconds(30); // calls fail fast for this long, then probes are let through
+    private int halfOpenProbes = 3; // successful probes needed to close again (any failed probe re-opens)
+}
@@ -0,0 +1,18 @@
+package com.branch.service.github.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "github.deadline")
+public class DeadlineProperties {
+    // ******** Properties ********
+    private Duration defaultTimeout = Duration.ofSeconds(5); // when the caller doesn't send X-Request-Timeout
+    private Duration maxTimeout = Duration.ofSeconds(30); // longer X-Request-Timeout values are cut down to this
+    private Duration streamTimeout = Duration.ofMinutes(2); // streamed repos (NDJSON) are cut off after this
+}
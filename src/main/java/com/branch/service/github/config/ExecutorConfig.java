@@ -0,0 +1,24 @@
+package com.branch.service.github.config;
+
+import com.branch.service.github.client.UpstreamContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+
+@Configuration
+public class ExecutorConfig {
+    // ******** Beans ********
+    // executor for the upstream fan-out (GitHub calls are blocking I/O, so they shouldn't run on the common ForkJoinPool).
+    // A virtual thread per task, never a bounded pool: tasks on it submit and join other tasks on it (repo pages, batch
+    // users, refreshes, hedges), which would deadlock a pool whose threads all wait on tasks queued behind them.
+    // ConcurrencyLimitInterceptor bounds the GitHub calls themselves.
+    @Bean(name = "gitHubExecutor")
+    public AsyncTaskExecutor gitHubExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("github-");
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(UpstreamContext::wrap); // <-- tasks keep the caller's priority and deadline
+        return executor;
+    }
+}
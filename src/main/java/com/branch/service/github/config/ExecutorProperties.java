@@ -0,0 +1,17 @@
+package com.branch.service.github.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "github.executor")
+public class ExecutorProperties {
+    // ******** Properties ********
+    private int maxConcurrency = 64; // max number of in-flight calls to GitHub (across all requests)
+    private Duration maxConcurrencyWait = Duration.ofSeconds(1); // bulkhead: calls waiting longer for a permit fail fast with 503
+}
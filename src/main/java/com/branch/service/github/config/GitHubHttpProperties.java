@@ -0,0 +1,23 @@
+package com.branch.service.github.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "github.http")
+public class GitHubHttpProperties {
+    // ******** Properties ********
+    private HttpClient.Version version = HttpClient.Version.HTTP_2; // falls back to HTTP/1.1 if the server doesn't support it
+    private Duration connectTimeout = Duration.ofSeconds(2); // TCP + TLS handshake
+    private Duration readTimeout = Duration.ofSeconds(10); // per call, until the response is fully read (reactive mode: between reads)
+    private boolean compression = true; // Accept-Encoding: gzip, bodies are inflated while they're parsed (never whole)
+    // -- reactive mode (Reactor Netty pool, HTTP/1.1) --
+    private int maxConnections = 500; // open connections to GitHub
+    private int maxPending = 10000; // calls waiting for a connection, beyond that they fail fast (503)
+}
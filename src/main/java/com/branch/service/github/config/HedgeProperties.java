@@ -0,0 +1,22 @@
+package com.branch.service.github.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "github.hedge")
+public class HedgeProperties {
+    // ******** Properties ********
+    private boolean enabled = false;
+    private double percentile = 0.95; // a call slower than this share of recent calls (per endpoint) gets a duplicate
+    private Duration minDelay = Duration.ofMillis(50); // never hedge sooner than this
+    private int minSamples = 100; // no hedging until this many calls to the endpoint have been timed
+    private int window = 512; // recent calls per endpoint the percentile is taken over
+    private double maxRatio = 0.05; // hedges per call, long-term (each hedge costs GitHub rate limit)
+    private int burst = 10; // hedges allowed back to back
+}
@@ -0,0 +1,72 @@
+package com.branch.service.github.config;
+
+import io.netty.channel.ChannelOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.http.client.ClientHttpRequestFactoryBuilder;
+import org.springframework.boot.http.client.HttpClientSettings;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+
+/**
+ * HTTP transport behind the auto-configured {@code RestClient.Builder} (and so behind {@code GitHubClient}): one shared JDK
+ * {@code HttpClient}, which keeps connections alive and reuses them, and multiplexes concurrent calls over a single HTTP/2
+ * connection to api.github.com. Concurrency per host is bounded by {@code ConcurrencyLimitInterceptor}, as every call
+ * goes to the same host. Responses are requested gzipped: a page of repos is ~600KB of JSON but typically compresses
+ * ~10x, and the JDK client inflates it while it's parsed, so the uncompressed body is never buffered.
+ * <p>
+ * In reactive mode {@code ReactiveGitHubClient} runs on a Reactor Netty connection pool instead, with the same timeouts.
+ * The pool is its bulkhead: at most {@code max-connections} calls in flight and {@code max-pending} waiting (for up to
+ * {@code github.executor.max-concurrency-wait}).
+ */
+@Configuration
+public class HttpClientConfig {
+    // ******** Properties ********
+    private static final Logger log = LoggerFactory.getLogger(HttpClientConfig.class);
+    // -- resources --
+    @Autowired
+    private GitHubHttpProperties gitHubHttpProperties;
+
+    // ******** Beans ********
+    @Bean
+    public ClientHttpRequestFactoryBuilder<JdkClientHttpRequestFactory> clientHttpRequestFactoryBuilder() {
+        log.info("using JDK HttpClient [{}] for GitHub calls", gitHubHttpProperties.getVersion());
+        return ClientHttpRequestFactoryBuilder.jdk()
+            .withHttpClientCustomizer(builder -> builder.version(gitHubHttpProperties.getVersion()))
+            .withCustomizer(factory -> factory.enableCompression(gitHubHttpProperties.isCompression()));
+    }
+
+    @Bean
+    public HttpClientSettings httpClientSettings() {
+        return HttpClientSettings.defaults()
+            .withTimeouts(gitHubHttpProperties.getConnectTimeout(), gitHubHttpProperties.getReadTimeout());
+    }
+
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public ConnectionProvider gitHubConnectionProvider(ExecutorProperties executorProperties) {
+        log.info("using a Reactor Netty pool of [{}] connections for GitHub calls", gitHubHttpProperties.getMaxConnections());
+        return ConnectionProvider.builder("github")
+            .maxConnections(gitHubHttpProperties.getMaxConnections())
+            .pendingAcquireMaxCount(gitHubHttpProperties.getMaxPending())
+            .pendingAcquireTimeout(executorProperties.getMaxConcurrencyWait())
+            .build();
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public ReactorClientHttpConnector gitHubClientHttpConnector(ConnectionProvider gitHubConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(gitHubConnectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) gitHubHttpProperties.getConnectTimeout().toMillis())
+            .responseTimeout(gitHubHttpProperties.getReadTimeout())
+            .compress(gitHubHttpProperties.isCompression());
+        return new ReactorClientHttpConnector(httpClient);
+    }
+}
@@ -0,0 +1,76 @@
+package com.branch.service.github.config;
+
+import com.branch.service.github.cache.HotKeyTracker;
+import com.branch.service.github.cache.ProfileCache;
+import com.branch.service.github.client.CircuitBreakerInterceptor;
+import com.branch.service.github.client.ConcurrencyLimitInterceptor;
+import com.branch.service.github.client.GitHubEndpoint;
+import com.branch.service.github.client.Hedger;
+import com.branch.service.github.client.RateLimitScheduler;
+import com.branch.service.github.client.RateLimitTracker;
+import com.branch.service.github.client.UpstreamContext.Priority;
+import com.branch.service.github.service.ProfileService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Locale;
+
+
+@Configuration
+public class MetricsConfig {
+    // ******** Beans ********
+    // gauges/counters read from components that already keep the numbers (timers are recorded where the work happens)
+    @Bean
+    public MeterBinder gitHubMeterBinder(ProfileCache profileCache, ConcurrencyLimitInterceptor concurrencyLimitInterceptor,
+                                         RateLimitTracker rateLimitTracker, RateLimitScheduler rateLimitScheduler,
+                                         CircuitBreakerInterceptor circuitBreakerInterceptor, ProfileService profileService,
+                                         HotKeyTracker hotKeyTracker, Hedger hedger) {
+        return registry -> {
+            // -- upstream concurrency --
+            Gauge.builder("github.api.active", concurrencyLimitInterceptor, ConcurrencyLimitInterceptor::getActiveCount)
+                .description("GitHub calls in flight").register(registry);
+            Gauge.builder("github.api.queued", concurrencyLimitInterceptor, ConcurrencyLimitInterceptor::getQueuedCount)
+                .description("GitHub calls waiting for a concurrency permit").register(registry);
+            Gauge.builder("profile.inflight", profileService, ProfileService::getInFlightCount)
+                .description("Distinct profile fetches in flight (after coalescing)").register(registry);
+            for (GitHubEndpoint endpoint : GitHubEndpoint.values()) {
+                Gauge.builder("github.circuit.state", circuitBreakerInterceptor, interceptor -> interceptor.getCircuitBreaker(endpoint).getState().ordinal())
+                    .description("Circuit breaker state (0 = closed, 1 = open, 2 = half-open)")
+                    .tag("endpoint", endpoint.tag()).register(registry);
+            }
+            FunctionCounter.builder("github.hedge.requests", hedger, Hedger::getHedgedCount)
+                .description("Duplicate GitHub calls sent for slow ones").register(registry);
+            FunctionCounter.builder("github.hedge.wins", hedger, Hedger::getHedgeWinCount)
+                .description("Hedged calls where the duplicate answered first").register(registry);
+            // -- rate limit --
+            Gauge.builder("github.ratelimit.limit", rateLimitTracker, RateLimitTracker::getLimit).register(registry);
+            Gauge.builder("github.ratelimit.remaining", rateLimitTracker, RateLimitTracker::getRemaining).register(registry);
+            Gauge.builder("github.ratelimit.reset.seconds", rateLimitTracker, RateLimitTracker::getSecondsUntilReset)
+                .description("Seconds until the GitHub rate limit window resets").register(registry);
+            Gauge.builder("github.ratelimit.tokens", rateLimitScheduler, RateLimitScheduler::getAvailableTokens)
+                .description("Tokens left in the client-side token bucket").register(registry);
+            for (Priority priority : Priority.values()) {
+                FunctionCounter.builder("github.ratelimit.rejected", rateLimitScheduler, scheduler -> scheduler.getRejectedCount(priority))
+                    .description("GitHub calls refused by the client-side rate limiter")
+                    .tag("priority", priority.name().toLowerCase(Locale.ROOT)).register(registry);
+            }
+            // -- profile cache --
+            FunctionCounter.builder("profile.cache.requests", profileCache, cache -> cache.stats().hits()).tag("result", "hit").register(registry);
+            FunctionCounter.builder("profile.cache.requests", profileCache, cache -> cache.stats().misses()).tag("result", "miss").register(registry);
+            FunctionCounter.builder("profile.cache.stale.hits", profileCache, cache -> cache.stats().staleHits()).register(registry);
+            FunctionCounter.builder("profile.cache.shared.hits", profileCache, cache -> cache.stats().sharedHits())
+                .description("Local misses served from the cache shared by all replicas").register(registry);
+            FunctionCounter.builder("profile.cache.notfound.hits", profileCache, cache -> cache.stats().notFoundHits())
+                .description("Lookups answered 404 from the cache of recent GitHub 404s").register(registry);
+            FunctionCounter.builder("profile.cache.evictions", profileCache, cache -> cache.stats().evictions()).register(registry);
+            FunctionCounter.builder("profile.cache.refreshes", profileCache, cache -> cache.stats().refreshes()).tag("result", "success").register(registry);
+            FunctionCounter.builder("profile.cache.refreshes", profileCache, cache -> cache.stats().refreshFailures()).tag("result", "failure").register(registry);
+            Gauge.builder("profile.cache.size", profileCache, cache -> cache.stats().size()).register(registry);
+            Gauge.builder("profile.hotkeys", hotKeyTracker, HotKeyTracker::size)
+                .description("Usernames tracked as pre-warm candidates").register(registry);
+        };
+    }
+}
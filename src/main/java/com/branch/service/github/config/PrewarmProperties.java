@@ -0,0 +1,22 @@
+package com.branch.service.github.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "github.prewarm")
+public class PrewarmProperties {
+    // ******** Properties ********
+    private boolean enabled = true;
+    private Duration interval = Duration.ofSeconds(10); // how often hot profiles are checked (counts are aged on decay-interval)
+    private int topK = 1000; // number of hottest usernames kept as pre-warm candidates
+    private Duration decayInterval = Duration.ofMinutes(1); // request counts are halved this often
+    private Duration lead = Duration.ofSeconds(15); // refresh when less than this is left before the profile goes stale
+    private double budgetShare = 0.1; // share of GitHub's hourly rate limit that pre-warming may spend
+    private int maxPerInterval = 50; // max profiles refreshed per interval (also the budget while the rate limit is unknown)
+}
@@ -0,0 +1,21 @@
+package com.branch.service.github.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "github.rate-limit")
+public class RateLimitProperties {
+    // ******** Properties ********
+    private boolean enabled = true;
+    private double requestsPerSecond = 10; // token bucket refill rate (lowered further to what's left of GitHub's hourly budget)
+    private int burst = 20; // token bucket capacity
+    private Duration maxWait = Duration.ofSeconds(2); // longer waits for a token fail fast with 503 instead
+    private double backgroundReserve = 0.2; // share of GitHub's hourly limit kept for user-facing requests (cache refreshes stop below it)
+    private Duration secondaryBackoff = Duration.ofSeconds(60); // pause after a 403/429 that has no Retry-After or reset time
+}
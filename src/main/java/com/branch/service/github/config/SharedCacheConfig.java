@@ -0,0 +1,28 @@
+package com.branch.service.github.config;
+
+import com.branch.service.github.cache.InMemorySharedProfileStore;
+import com.branch.service.github.cache.RedisSharedProfileStore;
+import com.branch.service.github.cache.SharedProfileStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+
+@Configuration
+public class SharedCacheConfig {
+    // ******** Properties ********
+    // -- resources --
+    @Autowired
+    private CacheProperties cacheProperties;
+
+    // ******** Beans ********
+    // picked at runtime rather than with @ConditionalOnProperty, which AOT builds (-Pproduction) would freeze at build time
+    @Bean
+    public SharedProfileStore sharedProfileStore() {
+        return switch (cacheProperties.getShared().getType()) {
+            case REDIS -> new RedisSharedProfileStore(cacheProperties.getShared());
+            case MEMORY -> new InMemorySharedProfileStore();
+            case NONE -> null; // <-- no shared tier, ProfileCache stays local only
+        };
+    }
+}
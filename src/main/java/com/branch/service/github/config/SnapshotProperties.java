@@ -0,0 +1,22 @@
+package com.branch.service.github.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "github.snapshot")
+public class SnapshotProperties {
+    // ******** Properties ********
+    private boolean enabled = false;
+    private Path file = Path.of("data", "github-snapshots.log"); // append-only, survives restarts (i.e. - on a persistent volume)
+    private Duration maxAge = Duration.ofDays(1); // older snapshots are ignored when the file is reloaded
+    private Duration freshFor = Duration.ofMinutes(5); // snapshots read back (after a restart) younger than this are reused without asking GitHub
+    private DataSize compactAbove = DataSize.ofMegabytes(64); // file is rewritten with live snapshots only once larger than this (on load or append)
+}
@@ -1,7 +1,13 @@
 package com.branch.service.github.controller;
 
+import com.branch.service.github.client.UpstreamContext;
+import com.branch.service.github.config.DeadlineProperties;
+import com.branch.service.github.model.dto.BatchProfileRequest;
+import com.branch.service.github.model.dto.BatchProfileResponse;
 import com.branch.service.github.model.dto.ErrorResponse;
+import com.branch.service.github.model.dto.ProfileFields;
 import com.branch.service.github.model.dto.UserProfileResponse;
+import com.branch.service.github.service.BatchProfileService;
 import com.branch.service.github.service.ProfileService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,15 +19,30 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 
 
 @Tag(name = "Profile", description = "GitHub user profile operations")
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET) // <-- see ReactiveProfileController
 @RequestMapping("/api/v1")
 public class ProfileController {
     // ******** Properties ********
@@ -29,19 +50,97 @@ public class ProfileController {
     // -- resources --
     @Autowired
     private ProfileService profileService;
+    @Autowired
+    private BatchProfileService batchProfileService;
+    @Autowired
+    private JsonMapper jsonMapper;
+    @Autowired
+    private DeadlineProperties deadlineProperties;
 
     // ******** Domain methods ********
-    @Operation(summary = "Get user profile", description = "Fetches GitHub user info and repository list")
+    @Operation(summary = "Get user profile", description = "Fetches GitHub user info and repository list (repos are only fetched when requested by fields)")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Profile found", content = @Content(schema = @Schema(implementation = UserProfileResponse.class))),
+        @ApiResponse(responseCode = "304", description = "Profile unchanged since the ETag in If-None-Match"),
+        @ApiResponse(responseCode = "400", description = "Invalid username, unknown field, or invalid X-Request-Timeout", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
         @ApiResponse(responseCode = "404", description = "User not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
-        @ApiResponse(responseCode = "502", description = "GitHub API error", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+        @ApiResponse(responseCode = "502", description = "GitHub API error", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "504", description = "GitHub did not answer within the request deadline", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @GetMapping("/users/{username}/profile")
-    public ResponseEntity<UserProfileResponse> getUserProfile(@Parameter(description = "GitHub username") @PathVariable String username) {
+    public ResponseEntity<Object> getUserProfile(@Parameter(description = "GitHub username") @PathVariable String username,
+                                            @Parameter(description = "Comma-separated fields to return (i.e. - user_name,avatar), all when omitted")
+                                            @RequestParam(required = false) String fields,
+                                            @Parameter(description = "ETag of a profile already held, answered with 304 when unchanged")
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                            @Parameter(description = "How long the caller waits for an answer (i.e. - 800ms, 2s), a partial profile or 504 after that")
+                                            @RequestHeader(value = ProfileResponses.REQUEST_TIMEOUT, required = false) String requestTimeout) {
         log.debug("Received request for profile for user [{}]", username);
-        UserProfileResponse profile = profileService.getUserProfile(username);
+        ProfileFields selection = ProfileFields.parse(fields);
+        Duration timeout = ProfileResponses.timeout(requestTimeout, deadlineProperties);
+        UserProfileResponse profile = UpstreamContext.callWithin(timeout, () -> selection.includesRepos()
+            ? profileService.getUserProfile(username)
+            : profileService.getUserProfileWithoutRepos(username)); // <-- skips the repos call to GitHub
         log.debug("Successfully retrieved profile for user [{}]", username);
-        return ResponseEntity.ok(profile);
+        Duration freshFor = profileService.getRemainingFreshness(username, selection.includesRepos());
+        return ProfileResponses.conditional(profile, selection, freshFor, ifNoneMatch, jsonMapper); // <-- 304 when the client's copy is current
+    }
+
+    @Operation(summary = "Stream user profile", description = "Streams the profile as NDJSON: the first line is the profile (without repos), each following line is one repo, written as pages arrive from GitHub")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Profile found", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE)),
+        @ApiResponse(responseCode = "400", description = "Invalid username, or invalid X-Request-Timeout", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "User not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "502", description = "GitHub API error", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "504", description = "GitHub did not answer within the request deadline", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(value = "/users/{username}/profile", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUserProfile(@Parameter(description = "GitHub username") @PathVariable String username,
+                                                                   @Parameter(description = "How long the caller waits for the first line (i.e. - 800ms, 2s), 504 after that")
+                                                                   @RequestHeader(value = ProfileResponses.REQUEST_TIMEOUT, required = false) String requestTimeout) {
+        log.debug("Received request for streamed profile for user [{}]", username);
+        // the first line up front (from the cache when possible), so 404/502/504 are returned as usual (nothing has been written yet)
+        Duration timeout = ProfileResponses.timeout(requestTimeout, deadlineProperties);
+        UserProfileResponse profile = UpstreamContext.callWithin(timeout, () -> profileService.getStreamedProfileHeader(username));
+        // the repos are always streamed from GitHub (the client reads them as they come): the cached full profile stops at
+        // max-pages, and unchanged pages are 304s that don't count against the rate limit. They get the stream-timeout
+        // (well within spring.mvc.async.request-timeout), past it the stream is cut off and the prefetched page cancelled
+        StreamingResponseBody body = out -> {
+            writeLine(out, profile);
+            UpstreamContext.callWithin(deadlineProperties.getStreamTimeout(), () -> {
+                profileService.streamUserRepos(username, repos -> {
+                    try {
+                        for (UserProfileResponse.RepoInfo repo : repos) {
+                            writeLine(out, repo);
+                        }
+                        out.flush(); // <-- one flush per page, so clients see repos as soon as GitHub returns them
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e); // i.e. - client went away (or the async request timed out), stops the stream
+                    }
+                });
+                return null;
+            });
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).varyBy(HttpHeaders.ACCEPT).body(body);
+    }
+
+    @Operation(summary = "Get user profiles in batch", description = "Fetches profiles for many users concurrently, with a per-user status (200/400/404/502/504)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Per-user results", content = @Content(schema = @Schema(implementation = BatchProfileResponse.class))),
+        @ApiResponse(responseCode = "400", description = "No usernames, too many usernames, or invalid X-Request-Timeout", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/users/profiles")
+    public ResponseEntity<BatchProfileResponse> getUserProfiles(@RequestBody BatchProfileRequest request,
+                                                                @Parameter(description = "How long the caller waits for the batch (users not done by then are 504s)")
+                                                                @RequestHeader(value = ProfileResponses.REQUEST_TIMEOUT, required = false) String requestTimeout) {
+        log.debug("Received batch profile request for [{}] users", (request.getUsernames() != null) ? request.getUsernames().size() : 0);
+        Duration timeout = ProfileResponses.timeout(requestTimeout, deadlineProperties);
+        return ResponseEntity.ok(UpstreamContext.callWithin(timeout, () -> batchProfileService.getUserProfiles(request.getUsernames())));
+    }
+
+    // ******** Private domain methods ********
+    private void writeLine(OutputStream out, Object value) throws IOException {
+        out.write(jsonMapper.writeValueAsBytes(value));
+        out.write('\n');
     }
 }
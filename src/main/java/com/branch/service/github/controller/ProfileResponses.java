@@ -0,0 +1,77 @@
+package com.branch.service.github.controller;
+
+import com.branch.service.github.config.DeadlineProperties;
+import com.branch.service.github.exception.InvalidRequestException;
+import com.branch.service.github.model.dto.ProfileFields;
+import com.branch.service.github.model.dto.UserProfileResponse;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+
+/**
+ * HTTP caching of the profile endpoint, for {@link ProfileController} and {@link ReactiveProfileController}: responses
+ * carry a strong {@code ETag} ({@link ProfileFields#eTag}) and a {@code Cache-Control} max-age of the profile's remaining
+ * freshness in our cache, and a matching {@code If-None-Match} gets a 304 before any body is built or written. Partial
+ * profiles are {@code no-cache}, so clients come back for the real one. JSON and NDJSON share the URL, so responses
+ * {@code Vary} by {@code Accept}.
+ * <p>
+ * Also reads the caller's deadline from {@code X-Request-Timeout} (i.e. - {@code 800ms}, {@code 2s}, a bare number is
+ * milliseconds), capped at {@code github.deadline.max-timeout}.
+ */
+final class ProfileResponses {
+    // ******** Properties ********
+    static final String REQUEST_TIMEOUT = "X-Request-Timeout";
+
+    // ******** Constructors ********
+    private ProfileResponses() {}
+
+    // ******** Domain methods ********
+    static ResponseEntity<Object> conditional(UserProfileResponse profile, ProfileFields selection, Duration freshFor,
+                                              String ifNoneMatch, JsonMapper jsonMapper) {
+        String eTag = selection.eTag(profile);
+        CacheControl cacheControl = profile.isPartial() ? CacheControl.noCache() : CacheControl.maxAge(freshFor).cachePublic();
+        if (matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl).varyBy(HttpHeaders.ACCEPT).body(selection.select(profile, jsonMapper));
+    }
+
+    // how long the caller waits for an answer: the header's value (at most max-timeout), default-timeout without one
+    static Duration timeout(String requestTimeout, DeadlineProperties deadlineProperties) {
+        if (requestTimeout == null || requestTimeout.isBlank()) {
+            return deadlineProperties.getDefaultTimeout();
+        }
+        Duration timeout;
+        try {
+            timeout = DurationStyle.detectAndParse(requestTimeout.trim(), ChronoUnit.MILLIS);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("invalid " + REQUEST_TIMEOUT + " [" + requestTimeout + "]");
+        }
+        if (!timeout.isPositive()) {
+            throw new InvalidRequestException(REQUEST_TIMEOUT + " must be positive");
+        }
+        return (timeout.compareTo(deadlineProperties.getMaxTimeout()) > 0) ? deadlineProperties.getMaxTimeout() : timeout;
+    }
+
+    // ******** Private domain methods ********
+    // i.e. - "abc", W/"abc" or * (weak comparison, as for GET)
+    private static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(eTag) || (tag.startsWith("W/") && tag.substring(2).equals(eTag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
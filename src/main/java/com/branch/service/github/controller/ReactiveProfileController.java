@@ -0,0 +1,79 @@
+package com.branch.service.github.controller;
+
+import com.branch.service.github.config.DeadlineProperties;
+import com.branch.service.github.model.dto.ErrorResponse;
+import com.branch.service.github.model.dto.ProfileFields;
+import com.branch.service.github.model.dto.UserProfileResponse;
+import com.branch.service.github.service.ReactiveProfileService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+
+
+/**
+ * {@link ProfileController} for the reactive mode ({@code spring.main.web-application-type=reactive}), on WebFlux and
+ * Netty event loops. Only the profile endpoint is served in this mode; streaming and batch need the servlet mode.
+ */
+@Tag(name = "Profile", description = "GitHub user profile operations")
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/v1")
+public class ReactiveProfileController {
+    // ******** Properties ********
+    private static final Logger log = LoggerFactory.getLogger(ReactiveProfileController.class);
+    // -- resources --
+    @Autowired
+    private ReactiveProfileService reactiveProfileService;
+    @Autowired
+    private JsonMapper jsonMapper;
+    @Autowired
+    private DeadlineProperties deadlineProperties;
+
+    // ******** Domain methods ********
+    @Operation(summary = "Get user profile", description = "Fetches GitHub user info and repository list (repos are only fetched when requested by fields)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Profile found", content = @Content(schema = @Schema(implementation = UserProfileResponse.class))),
+        @ApiResponse(responseCode = "304", description = "Profile unchanged since the ETag in If-None-Match"),
+        @ApiResponse(responseCode = "400", description = "Invalid username, unknown field, or invalid X-Request-Timeout", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "User not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "502", description = "GitHub API error", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "504", description = "GitHub did not answer within the request deadline", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/users/{username}/profile")
+    public Mono<ResponseEntity<Object>> getUserProfile(@Parameter(description = "GitHub username") @PathVariable String username,
+                                                       @Parameter(description = "Comma-separated fields to return (i.e. - user_name,avatar), all when omitted")
+                                                       @RequestParam(required = false) String fields,
+                                                       @Parameter(description = "ETag of a profile already held, answered with 304 when unchanged")
+                                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                       @Parameter(description = "How long the caller waits for an answer (i.e. - 800ms, 2s), 504 after that")
+                                                       @RequestHeader(value = ProfileResponses.REQUEST_TIMEOUT, required = false) String requestTimeout) {
+        log.debug("Received request for profile for user [{}]", username);
+        ProfileFields selection = ProfileFields.parse(fields);
+        Duration timeout = ProfileResponses.timeout(requestTimeout, deadlineProperties);
+        Mono<UserProfileResponse> profile = selection.includesRepos()
+            ? reactiveProfileService.getUserProfile(username, timeout)
+            : reactiveProfileService.getUserProfileWithoutRepos(username, timeout);
+        return profile.map(p -> ProfileResponses.conditional(p, selection,
+            reactiveProfileService.getRemainingFreshness(username, selection.includesRepos()), ifNoneMatch, jsonMapper));
+    }
+}
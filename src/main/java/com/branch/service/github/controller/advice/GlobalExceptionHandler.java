@@ -1,12 +1,17 @@
 package com.branch.service.github.controller.advice;
 
+import com.branch.service.github.exception.DeadlineExceededException;
 import com.branch.service.github.exception.GitHubApiException;
+import com.branch.service.github.exception.InvalidRequestException;
+import com.branch.service.github.exception.UpstreamUnavailableException;
 import com.branch.service.github.exception.UserNotFoundException;
 import com.branch.service.github.model.dto.ErrorResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
@@ -18,18 +23,58 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(UserNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleUserNotFound(UserNotFoundException ex) {
         log.warn("User [{}] not found", ex.getMessage()); // known possible error
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse(404, ex.getMessage()));
+        return toResponse(ErrorResponse.from(ex));
+    }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidRequest(InvalidRequestException ex) {
+        log.warn("Invalid request [{}]", ex.getMessage()); // caller error
+        return toResponse(ErrorResponse.from(ex));
+    }
+
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ErrorResponse> handleUnreadableBody(HttpMessageNotReadableException ex) {
+        log.warn("Unreadable request body [{}]", ex.getMessage()); // caller error
+        return toResponse(new ErrorResponse(400, "malformed request body"));
+    }
+
+    // no route (i.e. - /swagger-ui.html in a production build, which leaves springdoc out)
+    @ExceptionHandler({org.springframework.web.servlet.resource.NoResourceFoundException.class,
+                       org.springframework.web.reactive.resource.NoResourceFoundException.class})
+    public ResponseEntity<ErrorResponse> handleNoResource(Exception ex) {
+        log.debug("No resource [{}]", ex.getMessage()); // caller error
+        return toResponse(new ErrorResponse(404, "not found"));
+    }
+
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleUpstreamUnavailable(UpstreamUnavailableException ex) {
+        log.warn("GitHub call refused [{}], retry after [{}s]", ex.getMessage(), ex.getRetryAfterSeconds()); // back-pressure (rate limit, open circuit, full bulkhead)
+        ErrorResponse error = ErrorResponse.from(ex);
+        return ResponseEntity.status(error.getStatus()).contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(error);
+    }
+
+    @ExceptionHandler(DeadlineExceededException.class)
+    public ResponseEntity<ErrorResponse> handleDeadlineExceeded(DeadlineExceededException ex) {
+        log.warn("Request deadline exceeded [{}]", ex.getMessage()); // caller's own time budget (X-Request-Timeout), not a GitHub failure
+        return toResponse(ErrorResponse.from(ex));
     }
 
     @ExceptionHandler(GitHubApiException.class)
     public ResponseEntity<ErrorResponse> handleGitHubApiException(GitHubApiException ex) {
         log.error("GitHub API error [{}]", ex.getMessage(), ex); // other GitHub API error
-        return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(new ErrorResponse(502, "GitHub API error"));
+        return toResponse(ErrorResponse.from(ex));
     }
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
         log.error("Unexpected error occurred", ex); // unknown error processing request
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ErrorResponse(500, "internal server error"));
+        return toResponse(ErrorResponse.from(ex));
+    }
+
+    private static ResponseEntity<ErrorResponse> toResponse(ErrorResponse error) {
+        // always JSON, even if the client asked for something else (i.e. - NDJSON for a streamed profile)
+        return ResponseEntity.status(error.getStatus()).contentType(MediaType.APPLICATION_JSON).body(error);
     }
 }
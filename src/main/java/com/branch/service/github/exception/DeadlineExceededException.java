@@ -0,0 +1,9 @@
+package com.branch.service.github.exception;
+
+
+// the caller's deadline passed before GitHub answered (a GitHubApiException, so the last known good profile still applies)
+public class DeadlineExceededException extends GitHubApiException {
+    public DeadlineExceededException(String message) {
+        super(message, null);
+    }
+}
@@ -0,0 +1,8 @@
+package com.branch.service.github.exception;
+
+
+public class RateLimitedException extends UpstreamUnavailableException {
+    public RateLimitedException(String message, long retryAfterSeconds) {
+        super(message, retryAfterSeconds);
+    }
+}
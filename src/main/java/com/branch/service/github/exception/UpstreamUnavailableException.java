@@ -0,0 +1,16 @@
+package com.branch.service.github.exception;
+
+
+// GitHub calls refused locally (open circuit, full bulkhead, rate limit): clients get a 503 with Retry-After
+public class UpstreamUnavailableException extends GitHubApiException {
+    private final long retryAfterSeconds;
+
+    public UpstreamUnavailableException(String message, long retryAfterSeconds) {
+        super(message, null);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,14 @@
+package com.branch.service.github.model.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+
+@Setter
+@Getter
+public class BatchProfileRequest {
+    // ******** Properties ********
+    private List<String> usernames;
+}
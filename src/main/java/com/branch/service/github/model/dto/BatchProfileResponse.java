@@ -0,0 +1,47 @@
+package com.branch.service.github.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+
+@Setter
+@Getter
+public class BatchProfileResponse {
+    // ******** Properties ********
+    private List<Result> results;
+
+    // ******** Constructors *******
+    public BatchProfileResponse() {}
+    public BatchProfileResponse(List<Result> results) {
+        this.results = results;
+    }
+
+    // ******** Inner classes ********
+    // per-user outcome: either a profile (status 200) or an error with the same status/message as the single-user endpoint
+    @Setter
+    @Getter
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Result {
+        // ******** Properties ********
+        private String username;
+        private int status;
+        private UserProfileResponse profile;
+        private ErrorResponse error;
+
+        // ******** Constructors *******
+        public Result() {}
+        public Result(String username, UserProfileResponse profile) {
+            this.username = username;
+            this.status = 200;
+            this.profile = profile;
+        }
+        public Result(String username, ErrorResponse error) {
+            this.username = username;
+            this.status = error.getStatus();
+            this.error = error;
+        }
+    }
+}
@@ -1,5 +1,11 @@
 package com.branch.service.github.model.dto;
 
+import com.branch.service.github.exception.DeadlineExceededException;
+import com.branch.service.github.exception.GitHubApiException;
+import com.branch.service.github.exception.InvalidRequestException;
+import com.branch.service.github.exception.RateLimitedException;
+import com.branch.service.github.exception.UpstreamUnavailableException;
+import com.branch.service.github.exception.UserNotFoundException;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
@@ -11,4 +17,27 @@ import lombok.Setter;
 public class ErrorResponse {
     private int status;
     private String message;
+
+    // maps an exception to the status/message clients see (shared by GlobalExceptionHandler and per-user batch results)
+    public static ErrorResponse from(Throwable ex) {
+        if (ex instanceof UserNotFoundException) {
+            return new ErrorResponse(404, ex.getMessage());
+        }
+        if (ex instanceof InvalidRequestException) {
+            return new ErrorResponse(400, ex.getMessage());
+        }
+        if (ex instanceof RateLimitedException) {
+            return new ErrorResponse(503, "GitHub rate limit exceeded");
+        }
+        if (ex instanceof UpstreamUnavailableException) {
+            return new ErrorResponse(503, "GitHub temporarily unavailable");
+        }
+        if (ex instanceof DeadlineExceededException) {
+            return new ErrorResponse(504, "GitHub did not answer within the request deadline");
+        }
+        if (ex instanceof GitHubApiException) {
+            return new ErrorResponse(502, "GitHub API error");
+        }
+        return new ErrorResponse(500, "internal server error");
+    }
 }
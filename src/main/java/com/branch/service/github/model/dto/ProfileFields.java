@@ -0,0 +1,118 @@
+package com.branch.service.github.model.dto;
+
+import com.branch.service.github.exception.InvalidRequestException;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+
+/**
+ * The sparse fieldset asked for with {@code ?fields=user_name,avatar}: the JSON names of the {@link UserProfileResponse}
+ * properties to return. No {@code fields} parameter means everything.
+ */
+public record ProfileFields(Set<String> names) {
+    // ******** Properties ********
+    public static final List<String> NAMES = List.of(
+        "user_name", "display_name", "avatar", "geo_location", "email", "url", "created_at", "repos", "repo_count");
+    public static final ProfileFields ALL = new ProfileFields(Set.copyOf(NAMES));
+    private static final int REPRESENTATION_VERSION = 1; // <-- bump when the JSON of a profile changes, so ETags do too
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final HexFormat HEX = HexFormat.of();
+
+    // ******** Domain methods ********
+    public static ProfileFields parse(String fields) {
+        if (fields == null) {
+            return ALL;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (!NAMES.contains(trimmed)) {
+                throw new InvalidRequestException("unknown field [" + trimmed + "], expected any of " + NAMES);
+            }
+            names.add(trimmed);
+        }
+        return new ProfileFields(Set.copyOf(names));
+    }
+
+    public boolean isAll() {
+        return names.size() == NAMES.size();
+    }
+
+    // whether the repos have to be fetched from GitHub at all
+    public boolean includesRepos() {
+        return names.contains("repos") || names.contains("repo_count");
+    }
+
+    // the response body: the profile itself, or only the requested fields plus the "partial" marker (clients must still
+    // be able to tell a degraded profile)
+    public Object select(UserProfileResponse profile, JsonMapper jsonMapper) {
+        if (isAll()) {
+            return profile;
+        }
+        ObjectNode json = jsonMapper.valueToTree(profile);
+        Set<String> retained = new HashSet<>(names);
+        retained.add("partial");
+        return json.retain(retained);
+    }
+
+    /**
+     * Strong ETag of the {@link #select selected} representation: a 64-bit FNV-1a hash of the selected values (plus the
+     * "partial" marker), so unchanged profiles get the same ETag across requests and instances without writing any JSON.
+     */
+    public String eTag(UserProfileResponse profile) {
+        long hash = mix(FNV_OFFSET_BASIS, REPRESENTATION_VERSION);
+        for (String name : NAMES) {
+            if (!names.contains(name)) {
+                continue;
+            }
+            hash = hash(hash, name);
+            hash = switch (name) {
+                case "user_name" -> hash(hash, profile.getUserName());
+                case "display_name" -> hash(hash, profile.getDisplayName());
+                case "avatar" -> hash(hash, profile.getAvatar());
+                case "geo_location" -> hash(hash, profile.getGeoLocation());
+                case "email" -> hash(hash, profile.getEmail());
+                case "url" -> hash(hash, profile.getUrl());
+                case "created_at" -> hash(hash, profile.getCreatedAt());
+                case "repos" -> hashRepos(hash, profile.getRepos());
+                case "repo_count" -> mix(hash, (profile.getRepos() != null) ? profile.getRepos().size() : -1);
+                default -> hash;
+            };
+        }
+        hash = mix(hash, profile.isPartial() ? 1 : 0);
+        return "\"" + HEX.toHexDigits(hash) + "\"";
+    }
+
+    // ******** Private domain methods ********
+    private static long hashRepos(long hash, List<UserProfileResponse.RepoInfo> repos) {
+        if (repos == null) {
+            return mix(hash, -1);
+        }
+        for (UserProfileResponse.RepoInfo repo : repos) {
+            hash = hash(hash, repo.getName());
+            hash = hash(hash, repo.getUrl());
+        }
+        return mix(hash, repos.size());
+    }
+
+    private static long hash(long hash, String value) {
+        if (value == null) {
+            return mix(hash, 0x10001);
+        }
+        for (int i = 0; i < value.length(); i++) {
+            hash = mix(hash, value.charAt(i));
+        }
+        return mix(hash, 0x10000); // <-- terminator (outside the char range), so "ab","c" and "a","bc" differ
+    }
+
+    private static long mix(long hash, int value) {
+        return (hash ^ value) * FNV_PRIME;
+    }
+}
@@ -1,5 +1,6 @@
 package com.branch.service.github.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
 import lombok.Setter;
@@ -22,12 +23,16 @@ public class UserProfileResponse {
     private String url;
     @JsonProperty("created_at")
     private String createdAt;
-    private List<RepoInfo> repos;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<RepoInfo> repos; // null = repos weren't fetched (i.e. - header line of a streamed profile)
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private boolean partial; // GitHub was degraded: last known good profile, or user info without repos
 
     // ******** Synthetic properties ********
     @JsonProperty("repo_count")
-    public int getRepoCount() {
-        return (repos != null) ? repos.size() : 0;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Integer getRepoCount() {
+        return (repos != null) ? repos.size() : null;
     }
 
     // ******** Inner classes ********
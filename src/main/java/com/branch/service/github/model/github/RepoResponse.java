@@ -1,13 +1,9 @@
 package com.branch.service.github.model.github;
 
-import lombok.Getter;
-import lombok.Setter;
 
-
-@Setter
-@Getter
-public class RepoResponse {
-    // ******** properties ********
-    private String name;
-    private String url;
+/**
+ * The two properties we keep of a GitHub repo (the payload has ~100). Decoded by the streaming
+ * {@code RepoListHttpMessageConverter}, not by databind.
+ */
+public record RepoResponse(String name, String url) {
 }
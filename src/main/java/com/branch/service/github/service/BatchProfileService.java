@@ -0,0 +1,138 @@
+package com.branch.service.github.service;
+
+import com.branch.service.github.client.UpstreamContext;
+import com.branch.service.github.config.BatchProperties;
+import com.branch.service.github.exception.GitHubApiException;
+import com.branch.service.github.exception.InvalidRequestException;
+import com.branch.service.github.exception.UserNotFoundException;
+import com.branch.service.github.model.dto.BatchProfileResponse;
+import com.branch.service.github.model.dto.ErrorResponse;
+import com.branch.service.github.model.dto.UserProfileResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+
+@Service
+public class BatchProfileService {
+    // ******** Properties ********
+    private static final Logger log = LoggerFactory.getLogger(BatchProfileService.class);
+    // -- resources --
+    @Autowired
+    private ProfileService profileService;
+    @Autowired
+    private BatchProperties batchProperties;
+    @Autowired
+    @Qualifier("gitHubExecutor")
+    private AsyncTaskExecutor gitHubExecutor;
+
+    // ******** Domain methods ********
+    /**
+     * Fetches profiles for many users concurrently (at most {@code github.batch.max-parallelism} at a time). Each user
+     * gets its own result, so one bad user doesn't fail the batch; users not done by {@code github.batch.timeout} (or the
+     * caller's deadline, if sooner) come back as 504.
+     */
+    public BatchProfileResponse getUserProfiles(List<String> usernames) {
+        List<String> distinctUsernames = distinct(usernames);
+        if (distinctUsernames.isEmpty()) {
+            throw new InvalidRequestException("usernames must not be empty");
+        }
+        if (distinctUsernames.size() > batchProperties.getMaxUsernames()) {
+            throw new InvalidRequestException("too many usernames (max " + batchProperties.getMaxUsernames() + ")");
+        }
+        log.debug("fetching profiles for [{}] users", distinctUsernames.size());
+
+        // fan out, bounded by a per-batch semaphore
+        long deadline = System.nanoTime() + UpstreamContext.capToDeadline(batchProperties.getTimeout()).toNanos();
+        Semaphore parallelism = new Semaphore(batchProperties.getMaxParallelism());
+        Map<String, CompletableFuture<UserProfileResponse>> futures = new LinkedHashMap<>();
+        for (String username : distinctUsernames) {
+            futures.put(username, CompletableFuture.supplyAsync(() -> getUserProfile(username, parallelism, deadline), gitHubExecutor));
+        }
+
+        // wait until everything is done or the deadline passes, whichever is first
+        try {
+            CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).get(remainingNanos(deadline), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("batch deadline exceeded, returning partial results");
+        } catch (ExecutionException e) {
+            // individual failures are reported per user below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new BatchProfileResponse(futures.entrySet().stream().map(entry -> toResult(entry.getKey(), entry.getValue())).toList());
+    }
+
+    // ******** Private domain methods ********
+    private UserProfileResponse getUserProfile(String username, Semaphore parallelism, long deadline) {
+        try {
+            if (!parallelism.tryAcquire(remainingNanos(deadline), TimeUnit.NANOSECONDS)) {
+                throw new CancellationException("batch deadline exceeded before fetching user [" + username + "]");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("interrupted before fetching user [" + username + "]");
+        }
+        try {
+            // the batch deadline becomes the user's request deadline, so its GitHub calls stop waiting when the batch does
+            return UpstreamContext.callWithin(Duration.ofNanos(remainingNanos(deadline)), () -> profileService.getUserProfile(username));
+        } finally {
+            parallelism.release();
+        }
+    }
+
+    private BatchProfileResponse.Result toResult(String username, CompletableFuture<UserProfileResponse> future) {
+        if (!future.isDone()) {
+            future.cancel(true);
+            return new BatchProfileResponse.Result(username, new ErrorResponse(504, "deadline exceeded"));
+        }
+        try {
+            return new BatchProfileResponse.Result(username, future.join());
+        } catch (CancellationException e) {
+            return new BatchProfileResponse.Result(username, new ErrorResponse(504, "deadline exceeded"));
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CancellationException) {
+                return new BatchProfileResponse.Result(username, new ErrorResponse(504, "deadline exceeded"));
+            }
+            if (!(cause instanceof GitHubApiException) && !(cause instanceof UserNotFoundException) && !(cause instanceof InvalidRequestException)) {
+                log.error("unexpected error fetching profile for user [{}] in batch", username, cause);
+            }
+            return new BatchProfileResponse.Result(username, ErrorResponse.from(cause));
+        }
+    }
+
+    private static List<String> distinct(List<String> usernames) {
+        if (usernames == null) {
+            return List.of();
+        }
+        // keep the first spelling of each username (GitHub usernames are case-insensitive), in request order
+        Map<String, String> distinct = new LinkedHashMap<>();
+        for (String username : usernames) {
+            if (username != null && !username.isBlank()) {
+                distinct.putIfAbsent(username.trim().toLowerCase(Locale.ROOT), username.trim());
+            }
+        }
+        return List.copyOf(distinct.values());
+    }
+
+    private static long remainingNanos(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+}
@@ -0,0 +1,34 @@
+package com.branch.service.github.service;
+
+import com.branch.service.github.exception.InvalidRequestException;
+
+import java.util.regex.Pattern;
+
+
+/**
+ * GitHub's username rules: 1 to 39 letters, digits or single hyphens, not starting or ending with a hyphen. A username
+ * breaking them can't exist on GitHub, so it's refused before any cache lookup or GitHub call.
+ */
+public final class GitHubUsername {
+    // ******** Properties ********
+    private static final Pattern VALID = Pattern.compile("[a-zA-Z0-9](?:[a-zA-Z0-9]|-(?=[a-zA-Z0-9])){0,38}");
+
+    // ******** Constructors ********
+    private GitHubUsername() {}
+
+    // ******** Domain methods ********
+    public static void validate(String username) {
+        if (username == null || !VALID.matcher(username).matches()) {
+            throw new InvalidRequestException("invalid GitHub username [" + abbreviate(username) + "]");
+        }
+    }
+
+    // ******** Private domain methods ********
+    // the username goes back to the caller (and into logs), so junk is cut short
+    private static String abbreviate(String username) {
+        if (username == null) {
+            return "";
+        }
+        return (username.length() > 40) ? username.substring(0, 40) + "..." : username;
+    }
+}
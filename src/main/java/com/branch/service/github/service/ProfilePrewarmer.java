@@ -0,0 +1,93 @@
+package com.branch.service.github.service;
+
+import com.branch.service.github.cache.HotKeyTracker;
+import com.branch.service.github.client.RateLimitScheduler;
+import com.branch.service.github.client.RateLimitTracker;
+import com.branch.service.github.client.UpstreamContext.Priority;
+import com.branch.service.github.config.PrewarmProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+
+/**
+ * Refreshes the hottest profiles (see {@link HotKeyTracker}) shortly before they go stale, so hot users are always
+ * served fresh from memory. Only cached profiles are refreshed, in the shape they're cached in (with or without repos).
+ * <p>
+ * Background calls may spend {@code budget-share} of GitHub's hourly rate limit. Most refreshes are free 304s, so rather
+ * than guess their cost up front, the actual spend of background calls (as counted by {@link RateLimitScheduler}) is
+ * charged against that allowance after the fact: pre-warming pauses while it's in debt. Refreshes run at background
+ * priority, so they're also the first thing dropped when the budget runs low.
+ */
+@Component
+public class ProfilePrewarmer {
+    // ******** Properties ********
+    private static final Logger log = LoggerFactory.getLogger(ProfilePrewarmer.class);
+    private static final Duration RATE_LIMIT_WINDOW = Duration.ofHours(1);
+    private static final int MAX_CREDIT_INTERVALS = 6; // unused allowance carries over for at most this many intervals
+    private double credit; // calls still allowed (negative = overspent)
+    private long spentSeen;
+    // -- resources --
+    @Autowired
+    private PrewarmProperties prewarmProperties;
+    @Autowired
+    private HotKeyTracker hotKeyTracker;
+    @Autowired
+    private ProfileService profileService;
+    @Autowired
+    private RateLimitTracker rateLimitTracker;
+    @Autowired
+    private RateLimitScheduler rateLimitScheduler;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // ******** Domain methods ********
+    @Scheduled(fixedDelayString = "${github.prewarm.interval:10s}", initialDelayString = "${github.prewarm.interval:10s}")
+    public void prewarm() {
+        if (!prewarmProperties.isEnabled()) {
+            return; // <-- checked here rather than with @ConditionalOnProperty, which AOT builds would freeze at build time
+        }
+        int budget = budget();
+        int refreshed = 0;
+        for (String username : hotKeyTracker.hottest()) {
+            if (refreshed >= budget) {
+                break;
+            }
+            if (profileService.refreshIfExpiring(username, prewarmProperties.getLead())) {
+                refreshed++;
+            }
+        }
+        if (refreshed > 0) {
+            log.debug("pre-warming [{}] hot profiles (budget [{}])", refreshed, budget);
+            meterRegistry.counter("profile.prewarm.refreshes").increment(refreshed);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${github.prewarm.decay-interval:1m}", initialDelayString = "${github.prewarm.decay-interval:1m}")
+    public void decay() {
+        if (!prewarmProperties.isEnabled()) {
+            return;
+        }
+        hotKeyTracker.decay();
+    }
+
+    // ******** Private domain methods ********
+    // profiles to refresh this interval: up to max-per-interval, or none while background calls are over budget
+    int budget() {
+        long limit = rateLimitTracker.getLimit();
+        if (limit <= 0) {
+            return prewarmProperties.getMaxPerInterval(); // <-- no response from GitHub yet, nothing to share
+        }
+        double allowance = limit * prewarmProperties.getBudgetShare()
+            * prewarmProperties.getInterval().toMillis() / RATE_LIMIT_WINDOW.toMillis();
+        long spent = rateLimitScheduler.getSpentCount(Priority.BACKGROUND);
+        credit = Math.min(credit + allowance - (spent - spentSeen), allowance * MAX_CREDIT_INTERVALS);
+        spentSeen = spent;
+        return (credit > 0) ? prewarmProperties.getMaxPerInterval() : 0;
+    }
+}
@@ -1,64 +1,339 @@
 package com.branch.service.github.service;
 
+import com.branch.service.github.cache.HotKeyTracker;
+import com.branch.service.github.cache.ProfileCache;
 import com.branch.service.github.client.GitHubClient;
+import com.branch.service.github.client.UpstreamContext;
+import com.branch.service.github.config.DeadlineProperties;
+import com.branch.service.github.exception.DeadlineExceededException;
 import com.branch.service.github.exception.GitHubApiException;
 import com.branch.service.github.exception.UserNotFoundException;
 import com.branch.service.github.model.dto.UserProfileResponse;
 import com.branch.service.github.model.github.RepoResponse;
 import com.branch.service.github.model.github.UserResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-// import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 
 @Service
 public class ProfileService {
     // ******** Properties ********
     private static final Logger log = LoggerFactory.getLogger(ProfileService.class);
+    static final String WITHOUT_REPOS = "/user"; // <-- cache key suffix ('/' never appears in a username)
+    private final ConcurrentHashMap<String, CompletableFuture<UserResponse>> userInfoInFlight = new ConcurrentHashMap<>(); // <-- username -> user info of the fetch in flight
     // -- resources --
     @Autowired
     private GitHubClient gitHubClient;
+    @Autowired
+    private ProfileCache profileCache;
+    @Autowired
+    private HotKeyTracker hotKeyTracker;
+    @Autowired
+    @Qualifier("gitHubExecutor")
+    private AsyncTaskExecutor gitHubExecutor;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private DeadlineProperties deadlineProperties;
 
     // ******** Domain methods ********
-    // NOTE: if this got a lot of traffic, and we knew the data didn't change often, we could add caching here
-    // @Cacheable(value = "userProfiles", key = "#username") // TTL configured via cache provider (e.g., Caffeine: expireAfterWrite=60s)
     public UserProfileResponse getUserProfile(String username) {
+        return getUserProfile(username, true);
+    }
+
+    /**
+     * Same as {@link #getUserProfile(String)}, for callers that don't need the repos: takes a single GitHub call instead
+     * of two. The profile may still carry repos when a fresh full profile was cached, so callers shouldn't rely on it.
+     */
+    public UserProfileResponse getUserProfileWithoutRepos(String username) {
+        return getUserProfile(username, false);
+    }
+
+    // how long the profile just served stays fresh in the cache (see getUserProfileWithoutRepos for the lookup order)
+    public Duration getRemainingFreshness(String username, boolean withRepos) {
+        Duration full = profileCache.getRemainingFreshness(username);
+        if (withRepos || !full.isZero()) {
+            return full;
+        }
+        return profileCache.getRemainingFreshness(username + WITHOUT_REPOS);
+    }
+
+    /**
+     * Background refresh ahead of staleness (see {@link ProfilePrewarmer}), of the shape of the profile that's cached: the
+     * full profile, or the one without repos (i.e. - callers only asking for user fields), which then costs a single
+     * GitHub call. Returns whether a refresh was started.
+     */
+    public boolean refreshIfExpiring(String username, Duration lead) {
+        if (profileCache.isExpiringWithin(username, lead)) {
+            profileCache.refresh(username, this::loadUserProfile);
+            return true;
+        }
+        if (profileCache.getIfFresh(username) == null && profileCache.isExpiringWithin(username + WITHOUT_REPOS, lead)) {
+            // (a fresh full profile serves the callers without repos, see cachedUserInfoProfile)
+            profileCache.refresh(username + WITHOUT_REPOS, key -> loadUserInfoProfile(username));
+            return true;
+        }
+        return false;
+    }
+
+    // distinct profile fetches in flight, i.e. - after the cache coalesced concurrent misses
+    public int getInFlightCount() {
+        return profileCache.getLoadingCount();
+    }
+
+    /**
+     * The first line of a streamed profile: the user without repos, from the cache like
+     * {@link #getUserProfileWithoutRepos(String)} (same fallbacks, and within the caller's deadline).
+     */
+    public UserProfileResponse getStreamedProfileHeader(String username) {
+        UserProfileResponse profile = getUserProfileWithoutRepos(username);
+        if (profile.getRepos() == null) {
+            return profile;
+        }
+        UserProfileResponse header = copyUserInfo(profile); // <-- a cached full profile, shared, so never mutate it
+        header.setPartial(profile.isPartial());
+        return header;
+    }
+
+    // hands the user's repos to the consumer page by page, as they arrive from GitHub
+    public void streamUserRepos(String username, Consumer<List<UserProfileResponse.RepoInfo>> pageConsumer) {
+        gitHubClient.streamUserRepos(username, repos -> pageConsumer.accept(toRepoInfos(repos)));
+    }
+
+    // ******** Private domain methods ********
+    private UserProfileResponse getUserProfile(String username, boolean withRepos) {
+        GitHubUsername.validate(username); // <-- a username GitHub can't have is never looked up
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            throwIfKnownNotFound(username);
+            // served from cache when possible (stale entries are refreshed in the background)
+            UserProfileResponse profile = withRepos ? cachedUserProfile(username) : cachedUserInfoProfile(username);
+            outcome = profile.isPartial() ? "degraded" : "success";
+            hotKeyTracker.record(username); // <-- only real users become pre-warm candidates
+            return profile;
+        } catch (UserNotFoundException e) {
+            outcome = "not_found";
+            throw e;
+        } catch (GitHubApiException e) {
+            // GitHub is down (or refusing us): an old profile beats an error
+            UserProfileResponse lastKnownGood = lastKnownGood(username);
+            if (lastKnownGood == null) {
+                throw e;
+            }
+            log.warn("GitHub unavailable [{}], serving last known good profile for user [{}]", e.getMessage(), username);
+            outcome = "degraded";
+            return lastKnownGood;
+        } finally {
+            sample.stop(meterRegistry.timer("profile.requests", "outcome", outcome));
+        }
+    }
+
+    // the caller's deadline may pass before the shared fetch is done: the user info alone, if it's in, still makes a
+    // (partial) profile for that caller, while the fetch goes on for the others and the cache
+    private UserProfileResponse cachedUserProfile(String username) {
+        try {
+            return profileCache.get(username, this::loadUserProfile);
+        } catch (DeadlineExceededException e) {
+            CompletableFuture<UserResponse> userInfo = userInfoInFlight.get(key(username));
+            if (userInfo == null || !userInfo.isDone() || userInfo.isCompletedExceptionally()) {
+                throw e;
+            }
+            return degradedUserProfile(username, userInfo.join(), e);
+        }
+    }
+
+    // a fresh full profile has everything a profile without repos needs, otherwise cached under its own key
+    private UserProfileResponse cachedUserInfoProfile(String username) {
+        UserProfileResponse full = profileCache.getIfFresh(username);
+        if (full != null) {
+            return full;
+        }
+        return profileCache.get(username + WITHOUT_REPOS, key -> loadUserInfoProfile(username));
+    }
+
+    // the loads behind a cache miss are shared by every caller waiting for them (see ProfileCache.get), so they run on
+    // max-timeout rather than on the deadline of whichever caller came first; each caller only waits until its own
+    private UserProfileResponse loadUserProfile(String username) {
+        return load(username, () -> fetchUserProfile(username));
+    }
+
+    // user info only (no repos), i.e. - a profile without repos on a cache miss
+    private UserProfileResponse loadUserInfoProfile(String username) {
+        return load(username, () -> {
+            log.debug("fetching user info for user [{}]", username);
+            return buildUserProfileResponse(gitHubClient.getUserInfo(username), null);
+        });
+    }
+
+    private UserProfileResponse load(String username, Supplier<UserProfileResponse> fetch) {
+        try {
+            return UpstreamContext.callWithin(deadlineProperties.getMaxTimeout(), fetch);
+        } catch (UserNotFoundException e) {
+            profileCache.putNotFound(username); // <-- before the waiting callers see it, so new ones don't start another fetch
+            throw e;
+        }
+    }
+
+    // a username GitHub answered 404 for moments ago is answered 404 again without asking
+    private void throwIfKnownNotFound(String username) {
+        if (profileCache.isKnownNotFound(username)) {
+            log.debug("user [{}] recently not found on GitHub, not asking again", username);
+            throw new UserNotFoundException(username);
+        }
+    }
+
+    private UserProfileResponse fetchUserProfile(String username) {
         log.debug("fetching profile data for user [{}]", username);
 
-        // call both GitHub endpoints asynchronously
-        CompletableFuture<UserResponse> userInfoFuture = CompletableFuture.supplyAsync(() -> gitHubClient.getUserInfo(username));
-        CompletableFuture<List<RepoResponse>> reposFuture = CompletableFuture.supplyAsync(() -> gitHubClient.getUserRepos(username));
+        // call both GitHub endpoints asynchronously (on the dedicated executor, not the common ForkJoinPool), through
+        // Futures that can interrupt the calls
+        CompletableFuture<UserResponse> userInfoFuture = new CompletableFuture<>();
+        CompletableFuture<List<RepoResponse>> reposFuture = new CompletableFuture<>();
+        Future<?> userInfoCall = gitHubExecutor.submit(() -> completeWith(userInfoFuture, () -> gitHubClient.getUserInfo(username)));
+        Future<?> reposCall = gitHubExecutor.submit(() -> completeWith(reposFuture, () -> gitHubClient.getUserRepos(username)));
+        String key = key(username);
+        userInfoInFlight.put(key, userInfoFuture); // <-- for callers whose deadline passes first (see cachedUserProfile)
+        // a user that doesn't exist has no repos: stop the repos call (i.e. - still waiting on the rate limiter) rather than spending a GitHub call on it
+        userInfoFuture.whenComplete((userInfo, error) -> {
+            if (error instanceof UserNotFoundException) {
+                reposCall.cancel(true);
+                reposFuture.cancel(false);
+            }
+        });
 
         try {
             // wait for both to finish (only takes as long as the slowest response)
-            CompletableFuture.allOf(userInfoFuture, reposFuture).join();
+            Timer.Sample fetchSample = Timer.start(meterRegistry);
+            try {
+                awaitWithinDeadline(CompletableFuture.allOf(userInfoFuture, reposFuture));
+            } catch (TimeoutException e) {
+                // the fetch's own deadline (max-timeout) passed first: nobody waits for the calls still running, and the
+                // user alone still makes a (partial) profile
+                userInfoCall.cancel(true);
+                reposCall.cancel(true);
+                DeadlineExceededException deadlineExceeded = new DeadlineExceededException("request deadline passed while fetching the profile of [" + username + "]");
+                if (userInfoFuture.isDone() && !userInfoFuture.isCompletedExceptionally()) {
+                    return degradedUserProfile(username, userInfoFuture.join(), deadlineExceeded);
+                }
+                throw deadlineExceeded;
+            } finally {
+                fetchSample.stop(meterRegistry.timer("profile.fetch"));
+            }
             // get responses
             UserResponse userInfo = userInfoFuture.join();
             List<RepoResponse> repos = reposFuture.join();
             // aggregate results
-            return buildUserProfileResponse(userInfo, repos);
+            return meterRegistry.timer("profile.aggregate").record(() -> buildUserProfileResponse(userInfo, repos));
         } catch (CompletionException e) {
-            // handle various causes so all errors aren't just 500
-            Throwable cause = e.getCause();
-            if (cause instanceof UserNotFoundException) {
-                throw (UserNotFoundException) cause;
-            }
-            if (cause instanceof GitHubApiException) {
-                throw (GitHubApiException) cause;
+            if (!userInfoFuture.isCompletedExceptionally() && e.getCause() instanceof GitHubApiException reposError) {
+                return degradedUserProfile(username, userInfoFuture.join(), reposError);
             }
-            log.error("failed to fetch GitHub profile for user [{}]", username, e);
-            throw new GitHubApiException("failed to fetch GitHub profile for user [" + username + "]", cause);
+            throw unwrap(e, username);
+        } finally {
+            userInfoInFlight.remove(key, userInfoFuture);
         }
     }
 
-    // ******** Private domain methods ********
-    private UserProfileResponse buildUserProfileResponse(UserResponse userInfo, List<RepoResponse> repos) {
+    // user info came back but repos didn't: last known good profile if there is one, otherwise the user without repos
+    UserProfileResponse degradedUserProfile(String username, UserResponse userInfo, GitHubApiException reposError) {
+        log.warn("GitHub repos unavailable [{}], serving partial profile for user [{}]", reposError.getMessage(), username);
+        UserProfileResponse lastKnownGood = lastKnownGood(username);
+        if (lastKnownGood != null) {
+            return lastKnownGood;
+        }
+        UserProfileResponse partial = buildUserProfileResponse(userInfo, null);
+        partial.setPartial(true);
+        return partial;
+    }
+
+    // a copy of the last complete profile, marked partial (the cached instance is shared, so never mutate it)
+    UserProfileResponse lastKnownGood(String username) {
+        UserProfileResponse cached = profileCache.getLastKnownGood(username);
+        if (cached == null) {
+            return null;
+        }
+        UserProfileResponse copy = copyUserInfo(cached);
+        copy.setRepos(cached.getRepos());
+        copy.setPartial(true);
+        return copy;
+    }
+
+    // the user fields of a profile, without repos
+    private static UserProfileResponse copyUserInfo(UserProfileResponse profile) {
+        UserProfileResponse copy = new UserProfileResponse();
+        copy.setUserName(profile.getUserName());
+        copy.setDisplayName(profile.getDisplayName());
+        copy.setAvatar(profile.getAvatar());
+        copy.setGeoLocation(profile.getGeoLocation());
+        copy.setEmail(profile.getEmail());
+        copy.setUrl(profile.getUrl());
+        copy.setCreatedAt(profile.getCreatedAt());
+        return copy;
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT); // GitHub usernames are case-insensitive
+    }
+
+    private static <T> void completeWith(CompletableFuture<T> future, Supplier<T> call) {
+        try {
+            future.complete(call.get());
+        } catch (Throwable e) {
+            future.completeExceptionally(e); // <-- Errors included, the caller waits on the future
+        }
+    }
+
+    // join(), bounded by the caller's deadline (see UpstreamContext); failures come back as a CompletionException like join()'s
+    private static <T> T awaitWithinDeadline(CompletableFuture<T> future) throws TimeoutException {
+        Duration remaining = UpstreamContext.remaining();
+        if (remaining == null) {
+            return future.join();
+        }
+        try {
+            return future.get(Math.max(0, remaining.toNanos()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw new CompletionException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    private RuntimeException unwrap(CompletionException e, String username) {
+        // handle various causes so all errors aren't just 500
+        Throwable cause = e.getCause();
+        if (cause instanceof UserNotFoundException notFound) {
+            return notFound;
+        }
+        if (cause instanceof GitHubApiException apiError) {
+            return apiError;
+        }
+        log.error("failed to fetch GitHub profile for user [{}]", username, e);
+        return new GitHubApiException("failed to fetch GitHub profile for user [" + username + "]", cause);
+    }
+
+    // package-private (like formatDate) so ReactiveProfileService and the JMH benchmarks in src/jmh can use it directly
+    UserProfileResponse buildUserProfileResponse(UserResponse userInfo, List<RepoResponse> repos) {
         UserProfileResponse response = new UserProfileResponse();
         response.setUserName(userInfo.getLogin());
         response.setDisplayName(userInfo.getName());
@@ -67,11 +342,15 @@ public class ProfileService {
         response.setEmail(userInfo.getEmail());
         response.setUrl(userInfo.getUrl());
         response.setCreatedAt(formatDate(userInfo.getCreatedAt()));
-        response.setRepos(repos.stream().map(repo -> new UserProfileResponse.RepoInfo(repo.getName(), repo.getUrl())).toList());
+        response.setRepos((repos != null) ? toRepoInfos(repos) : null);
         return response;
     }
 
-    private String formatDate(String iso8601Date) {
+    private static List<UserProfileResponse.RepoInfo> toRepoInfos(List<RepoResponse> repos) {
+        return repos.stream().map(repo -> new UserProfileResponse.RepoInfo(repo.name(), repo.url())).toList();
+    }
+
+    String formatDate(String iso8601Date) {
         if (iso8601Date == null) {
             return null;
         }
@@ -0,0 +1,160 @@
+package com.branch.service.github.service;
+
+import com.branch.service.github.cache.HotKeyTracker;
+import com.branch.service.github.cache.ProfileCache;
+import com.branch.service.github.client.ReactiveGitHubClient;
+import com.branch.service.github.exception.DeadlineExceededException;
+import com.branch.service.github.exception.GitHubApiException;
+import com.branch.service.github.exception.UserNotFoundException;
+import com.branch.service.github.model.dto.UserProfileResponse;
+import com.branch.service.github.model.github.RepoResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Signal;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+
+/**
+ * The {@link ProfileService} pipeline without blocking, for the reactive mode: same cache, coalescing, degraded
+ * profiles and metrics, but nothing waits on a thread, so the number of concurrent (slow) GitHub calls is bounded by the
+ * connection pool rather than by threads. Misses go through {@link ProfileCache#getAsync} like {@link ProfileService}'s
+ * (one load per user, under the shared store lease), looked up on {@code boundedElastic} since the shared store (Redis)
+ * blocks; the loads and background refreshes run on the GitHub executor as usual.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveProfileService {
+    // ******** Properties ********
+    private static final Logger log = LoggerFactory.getLogger(ReactiveProfileService.class);
+    // -- resources --
+    @Autowired
+    private ReactiveGitHubClient gitHubClient;
+    @Autowired
+    private ProfileService profileService; // <-- profile building and degraded profiles are shared
+    @Autowired
+    private ProfileCache profileCache;
+    @Autowired
+    private HotKeyTracker hotKeyTracker;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // ******** Domain methods ********
+    public Mono<UserProfileResponse> getUserProfile(String username) {
+        return getUserProfile(username, null);
+    }
+
+    // same, failing with a DeadlineExceededException (or the last known good profile) when not done within the timeout (null = no timeout)
+    public Mono<UserProfileResponse> getUserProfile(String username, Duration timeout) {
+        return validated(username).then(instrument(username, timeout, Mono.defer(() -> {
+            if (profileCache.isKnownNotFound(username)) {
+                return Mono.error(new UserNotFoundException(username)); // <-- see ProfileService
+            }
+            return cached(username, username, this::fetchUserProfile);
+        })));
+    }
+
+    // see ProfileService.getUserProfileWithoutRepos
+    public Mono<UserProfileResponse> getUserProfileWithoutRepos(String username) {
+        return getUserProfileWithoutRepos(username, null);
+    }
+
+    public Mono<UserProfileResponse> getUserProfileWithoutRepos(String username, Duration timeout) {
+        return validated(username).then(instrument(username, timeout, Mono.defer(() -> {
+            if (profileCache.isKnownNotFound(username)) {
+                return Mono.error(new UserNotFoundException(username));
+            }
+            UserProfileResponse full = profileCache.getIfFresh(username);
+            if (full != null) {
+                return Mono.just(full);
+            }
+            return cached(username + ProfileService.WITHOUT_REPOS, username, this::fetchUserInfoProfile);
+        })));
+    }
+
+    public Duration getRemainingFreshness(String username, boolean withRepos) {
+        return profileService.getRemainingFreshness(username, withRepos);
+    }
+
+    // ******** Private domain methods ********
+    private static Mono<Void> validated(String username) {
+        return Mono.fromRunnable(() -> GitHubUsername.validate(username));
+    }
+
+    // the cached profile, or the shared load of the miss (see ProfileCache.get), which runs to completion (and is cached)
+    // even if this caller goes away. The loader blocks on the fetch, on the GitHub executor (never an event loop)
+    private Mono<UserProfileResponse> cached(String cacheKey, String username, Function<String, Mono<UserProfileResponse>> fetcher) {
+        Function<String, UserProfileResponse> loader = key -> {
+            try {
+                return fetcher.apply(username).block();
+            } catch (UserNotFoundException e) {
+                profileCache.putNotFound(username); // <-- see ProfileService
+                throw e;
+            }
+        };
+        return Mono.fromCallable(() -> profileCache.getAsync(cacheKey, loader))
+            .subscribeOn(Schedulers.boundedElastic()) // <-- the shared store lookup (and lease) may block on Redis
+            .flatMap(load -> Mono.fromFuture(load, true));
+    }
+
+    private Mono<UserProfileResponse> fetchUserProfile(String username) {
+        return Mono.defer(() -> {
+            log.debug("fetching profile data for user [{}]", username);
+            Timer.Sample fetchSample = Timer.start(meterRegistry);
+            // both GitHub calls at once; a failed user lookup cancels the repos call, failed repos still leave a partial profile
+            return Mono.zip(gitHubClient.getUserInfo(username), gitHubClient.getUserRepos(username).materialize())
+                .doOnTerminate(() -> fetchSample.stop(meterRegistry.timer("profile.fetch")))
+                .map(results -> meterRegistry.timer("profile.aggregate").record(() -> {
+                    Signal<List<RepoResponse>> repos = results.getT2();
+                    if (repos.isOnError()) {
+                        if (repos.getThrowable() instanceof GitHubApiException reposError) {
+                            return profileService.degradedUserProfile(username, results.getT1(), reposError);
+                        }
+                        throw Exceptions.propagate(repos.getThrowable());
+                    }
+                    return profileService.buildUserProfileResponse(results.getT1(), repos.get());
+                }));
+        });
+    }
+
+    private Mono<UserProfileResponse> fetchUserInfoProfile(String username) {
+        return gitHubClient.getUserInfo(username).map(userInfo -> profileService.buildUserProfileResponse(userInfo, null));
+    }
+
+    // profile.requests timer, hot key tracking, the caller's deadline, and the last known good profile while GitHub is unavailable
+    private Mono<UserProfileResponse> instrument(String username, Duration timeout, Mono<UserProfileResponse> profile) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            // the shared fetch (see cached) keeps running past the timeout, so it still ends up in the cache
+            Mono<UserProfileResponse> bounded = (timeout != null)
+                ? profile.timeout(timeout, Mono.error(() -> new DeadlineExceededException("request deadline passed while fetching the profile of [" + username + "]")))
+                : profile;
+            return bounded
+                .doOnNext(p -> hotKeyTracker.record(username))
+                .onErrorResume(GitHubApiException.class, e -> {
+                    UserProfileResponse lastKnownGood = profileService.lastKnownGood(username);
+                    if (lastKnownGood == null) {
+                        return Mono.error(e);
+                    }
+                    log.warn("GitHub unavailable [{}], serving last known good profile for user [{}]", e.getMessage(), username);
+                    return Mono.just(lastKnownGood);
+                })
+                .doOnNext(p -> sample.stop(timer(p.isPartial() ? "degraded" : "success")))
+                .doOnError(e -> sample.stop(timer((e instanceof UserNotFoundException) ? "not_found" : "error")));
+        });
+    }
+
+    private Timer timer(String outcome) {
+        return meterRegistry.timer("profile.requests", "outcome", outcome);
+    }
+}
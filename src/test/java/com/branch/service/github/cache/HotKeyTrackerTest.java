@@ -0,0 +1,82 @@
+package com.branch.service.github.cache;
+
+import com.branch.service.github.config.PrewarmProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+class HotKeyTrackerTest {
+    private HotKeyTracker hotKeyTracker; // <-- class under test
+
+    @BeforeEach
+    void setUp() {
+        PrewarmProperties properties = new PrewarmProperties();
+        properties.setTopK(3);
+        hotKeyTracker = new HotKeyTracker(properties);
+    }
+
+    // ******** Tests ********
+    @Test
+    void record_skewedTraffic_keepsHeavyHittersHottestFirst() {
+        // given
+        record("octocat", 50);
+        record("torvalds", 30);
+        record("gaearon", 20);
+
+        // when
+        IntStream.range(0, 200).forEach(i -> hotKeyTracker.record("one-off-" + i)); // <-- long tail of single requests
+
+        // then
+        assertThat(hotKeyTracker.hottest()).containsExactly("octocat", "torvalds", "gaearon");
+    }
+
+    @Test
+    void record_ignoresCase() {
+        // when
+        record("OctoCat", 2);
+        record("octocat", 2);
+
+        // then
+        assertThat(hotKeyTracker.hottest()).containsExactly("octocat");
+    }
+
+    @Test
+    void decay_coldUsernamesDropOut() {
+        // given
+        record("octocat", 8);
+        record("torvalds", 1);
+
+        // when
+        hotKeyTracker.decay(); // <-- 1 halves to 0
+        List<String> hottest = hotKeyTracker.hottest();
+
+        // then
+        assertThat(hottest).containsExactly("octocat");
+    }
+
+    @Test
+    void decay_newHeavyHitterDisplacesOldOne() {
+        // given
+        record("octocat", 40);
+        record("torvalds", 30);
+        record("gaearon", 20);
+
+        // when
+        hotKeyTracker.decay();
+        hotKeyTracker.decay(); // <-- octocat 10, torvalds 7, gaearon 5
+        record("newcomer", 12);
+
+        // then
+        assertThat(hotKeyTracker.hottest()).containsExactly("newcomer", "octocat", "torvalds");
+    }
+
+    // ******** Helper methods ********
+    private void record(String username, int times) {
+        IntStream.range(0, times).forEach(i -> hotKeyTracker.record(username));
+    }
+}
@@ -0,0 +1,343 @@
+package com.branch.service.github.cache;
+
+import com.branch.service.github.config.CacheProperties;
+import com.branch.service.github.exception.GitHubApiException;
+import com.branch.service.github.exception.UserNotFoundException;
+import com.branch.service.github.model.dto.UserProfileResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+class ProfileCacheTest {
+    private final AtomicLong nanos = new AtomicLong(); // <-- fake clock so tests don't sleep
+    private final AtomicInteger loads = new AtomicInteger();
+    private CacheProperties properties;
+    private ProfileCache profileCache; // <-- class under test
+
+    @BeforeEach
+    void setUp() {
+        properties = new CacheProperties();
+        properties.setTtl(Duration.ofSeconds(60));
+        properties.setStaleTtl(Duration.ofMinutes(10));
+        profileCache = new ProfileCache(properties, Runnable::run, nanos::get); // <-- refreshes run inline
+    }
+
+    // ******** Tests ********
+    @Test
+    void get_freshEntry_doesNotCallLoader() {
+        // given
+        profileCache.get("octocat", this::load);
+
+        // when
+        advance(Duration.ofSeconds(30));
+        UserProfileResponse result = profileCache.get("octocat", this::load);
+
+        // then
+        assertThat(result.getDisplayName()).isEqualTo("load-1");
+        assertThat(loads).hasValue(1);
+        assertThat(profileCache.stats().hits()).isEqualTo(1);
+        assertThat(profileCache.stats().misses()).isEqualTo(1);
+    }
+
+    @Test
+    void get_staleEntry_returnsStaleAndRefreshesInBackground() {
+        // given
+        profileCache.get("octocat", this::load);
+        advance(Duration.ofSeconds(90));
+
+        // when
+        UserProfileResponse stale = profileCache.get("octocat", this::load);
+        UserProfileResponse refreshed = profileCache.get("octocat", this::load);
+
+        // then
+        assertThat(stale.getDisplayName()).isEqualTo("load-1");
+        assertThat(refreshed.getDisplayName()).isEqualTo("load-2");
+        assertThat(profileCache.stats().staleHits()).isEqualTo(1);
+        assertThat(profileCache.stats().refreshes()).isEqualTo(1);
+    }
+
+    @Test
+    void get_staleEntry_refreshFailureKeepsStaleProfile() {
+        // given
+        profileCache.get("octocat", this::load);
+        advance(Duration.ofSeconds(90));
+        Function<String, UserProfileResponse> failingLoader = username -> {
+            throw new GitHubApiException("GitHub API failed", new RuntimeException("connection refused"));
+        };
+
+        // when
+        UserProfileResponse result = profileCache.get("octocat", failingLoader);
+
+        // then
+        assertThat(result.getDisplayName()).isEqualTo("load-1");
+        assertThat(profileCache.stats().refreshFailures()).isEqualTo(1);
+        assertThat(profileCache.stats().size()).isEqualTo(1);
+    }
+
+    @Test
+    void get_expiredEntry_reloadsSynchronously() {
+        // given
+        profileCache.get("octocat", this::load);
+        advance(Duration.ofMinutes(11));
+
+        // when
+        UserProfileResponse result = profileCache.get("octocat", this::load);
+
+        // then
+        assertThat(result.getDisplayName()).isEqualTo("load-2");
+        assertThat(profileCache.stats().staleHits()).isZero();
+    }
+
+    @Test
+    void get_loaderThrows_nothingIsCached() {
+        // when/then
+        assertThatThrownBy(() -> profileCache.get("bogususer", username -> { throw new UserNotFoundException(username); }))
+            .isInstanceOf(UserNotFoundException.class);
+        assertThat(profileCache.stats().size()).isZero();
+    }
+
+    @Test
+    void get_overMaxSize_evictsEntries() {
+        // given
+        properties.setMaxSize(2);
+        profileCache = new ProfileCache(properties, Runnable::run, nanos::get);
+
+        // when
+        profileCache.get("user-a", this::load);
+        profileCache.get("user-b", this::load);
+        profileCache.get("user-c", this::load);
+        profileCache.cleanUp();
+
+        // then
+        assertThat(profileCache.stats().size()).isLessThanOrEqualTo(2);
+        assertThat(profileCache.stats().evictions()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void get_disabled_alwaysCallsLoader() {
+        // given
+        properties.setEnabled(false);
+
+        // when
+        profileCache.get("octocat", this::load);
+        profileCache.get("octocat", this::load);
+
+        // then
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void isExpiringWithin_entryCloseToTtl_isExpiring() {
+        // given
+        profileCache.get("octocat", this::load);
+
+        // when
+        boolean early = profileCache.isExpiringWithin("octocat", Duration.ofSeconds(15));
+        advance(Duration.ofSeconds(50));
+        boolean late = profileCache.isExpiringWithin("octocat", Duration.ofSeconds(15)); // <-- 10s left of 60s ttl
+
+        // then
+        assertThat(early).isFalse();
+        assertThat(late).isTrue();
+        assertThat(profileCache.isExpiringWithin("unknown", Duration.ofSeconds(15))).isFalse(); // <-- nothing to refresh
+        assertThat(profileCache.stats().hits()).isZero(); // <-- the prewarmer's checks aren't lookups
+        assertThat(profileCache.stats().misses()).isEqualTo(1);
+    }
+
+    @Test
+    void getRemainingFreshness_countsDownToZeroWhenStale() {
+        // given
+        profileCache.get("octocat", this::load);
+
+        // when
+        advance(Duration.ofSeconds(45));
+        Duration remaining = profileCache.getRemainingFreshness("OctoCat"); // <-- same user, any case
+        advance(Duration.ofSeconds(30));
+        Duration stale = profileCache.getRemainingFreshness("octocat");
+
+        // then
+        assertThat(remaining).isEqualTo(Duration.ofSeconds(15));
+        assertThat(stale).isZero();
+        assertThat(profileCache.getRemainingFreshness("unknown")).isZero();
+    }
+
+    @Test
+    void isKnownNotFound_rememberedUntilNotFoundTtl() {
+        // given
+        profileCache.putNotFound("bogususer");
+
+        // when
+        advance(Duration.ofSeconds(20));
+        boolean remembered = profileCache.isKnownNotFound("BogusUser"); // <-- same user, any case
+        advance(Duration.ofSeconds(10)); // <-- a hit doesn't extend the 30s ttl
+        boolean forgotten = !profileCache.isKnownNotFound("bogususer");
+
+        // then
+        assertThat(remembered).isTrue();
+        assertThat(forgotten).isTrue();
+        assertThat(profileCache.isKnownNotFound("octocat")).isFalse();
+        assertThat(profileCache.stats().notFoundHits()).isEqualTo(1);
+    }
+
+    @Test
+    void get_sharedStore_secondReplicaServesProfileFetchedByFirst() {
+        // given
+        InMemorySharedProfileStore shared = new InMemorySharedProfileStore(this::millis);
+        ProfileCache replicaA = replica(shared);
+        ProfileCache replicaB = replica(shared.newNode());
+        replicaA.get("octocat", this::load);
+
+        // when
+        advance(Duration.ofSeconds(45));
+        UserProfileResponse result = replicaB.get("OctoCat", this::load);
+
+        // then
+        assertThat(result.getDisplayName()).isEqualTo("load-1");
+        assertThat(loads).hasValue(1);
+        assertThat(replicaB.stats().sharedHits()).isEqualTo(1);
+        assertThat(replicaB.getRemainingFreshness("octocat")).isEqualTo(Duration.ofSeconds(15)); // <-- aged from the first fetch
+    }
+
+    @Test
+    void put_sharedStore_invalidatesOtherReplicasLocalCopy() {
+        // given
+        InMemorySharedProfileStore shared = new InMemorySharedProfileStore(this::millis);
+        ProfileCache replicaA = replica(shared);
+        ProfileCache replicaB = replica(shared.newNode());
+        replicaA.get("octocat", this::load);
+        replicaB.get("octocat", this::load);
+
+        // when
+        replicaA.put("octocat", load("octocat"));
+        UserProfileResponse result = replicaB.get("octocat", this::load);
+
+        // then
+        assertThat(result.getDisplayName()).isEqualTo("load-2");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void get_sharedStoreStaleEntry_onlyLeaseHolderRefreshes() {
+        // given
+        InMemorySharedProfileStore shared = new InMemorySharedProfileStore(this::millis);
+        ProfileCache replicaA = replica(shared);
+        InMemorySharedProfileStore nodeB = shared.newNode();
+        ProfileCache replicaB = replica(nodeB);
+        replicaA.get("octocat", this::load);
+        replicaB.get("octocat", this::load);
+        advance(Duration.ofSeconds(90));
+        nodeB.tryLease("octocat", Duration.ofSeconds(10)); // <-- replica B is refreshing it
+
+        // when
+        UserProfileResponse stale = replicaA.get("octocat", this::load);
+
+        // then
+        assertThat(stale.getDisplayName()).isEqualTo("load-1");
+        assertThat(loads).hasValue(1);
+        assertThat(replicaA.stats().refreshes()).isZero();
+    }
+
+    @Test
+    void get_sharedStoreLeaseHeldElsewhere_fetchesAfterMissWait() {
+        // given
+        properties.getShared().setMissWait(Duration.ofMillis(50));
+        InMemorySharedProfileStore shared = new InMemorySharedProfileStore(this::millis);
+        ProfileCache replicaA = replica(shared);
+        shared.newNode().tryLease("octocat", Duration.ofSeconds(10)); // <-- another replica took the lease and never delivered
+
+        // when
+        UserProfileResponse result = replicaA.get("octocat", this::load);
+
+        // then
+        assertThat(result.getDisplayName()).isEqualTo("load-1");
+        assertThat(shared.get("octocat")).isNotNull(); // <-- written through for everyone else
+    }
+
+    @Test
+    void get_concurrentMisses_onlyLoaderWritesSharedStore() throws Exception {
+        // given
+        InMemorySharedProfileStore shared = new InMemorySharedProfileStore(this::millis);
+        ProfileCache replicaA = replica(shared);
+        AtomicInteger invalidations = new AtomicInteger();
+        shared.newNode().onInvalidation(key -> invalidations.incrementAndGet()); // <-- one per write to the shared store
+        CountDownLatch release = new CountDownLatch(1);
+        Function<String, UserProfileResponse> slowLoader = username -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return load(username);
+        };
+
+        // when
+        List<CompletableFuture<UserProfileResponse>> callers = IntStream.range(0, 4)
+            .mapToObj(i -> CompletableFuture.supplyAsync(() -> replicaA.get("octocat", slowLoader)))
+            .toList();
+        Thread.sleep(100); // <-- all callers missed and joined the first one's load
+        release.countDown();
+
+        // then
+        for (CompletableFuture<UserProfileResponse> caller : callers) {
+            assertThat(caller.get(5, TimeUnit.SECONDS).getDisplayName()).isEqualTo("load-1");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(invalidations).hasValue(1);
+    }
+
+    @Test
+    void getAsync_leaseHeldElsewhere_returnsWithoutWaitingForTheSharedCopy() throws Exception {
+        // given
+        InMemorySharedProfileStore shared = new InMemorySharedProfileStore(this::millis);
+        InMemorySharedProfileStore nodeB = shared.newNode();
+        nodeB.tryLease("octocat", Duration.ofSeconds(10)); // <-- replica B is fetching it
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            ProfileCache replicaA = new ProfileCache(properties, executor, nanos::get, this::millis, shared);
+
+            // when
+            CompletableFuture<UserProfileResponse> result = replicaA.getAsync("octocat", this::load);
+            boolean doneBeforeReplicaB = result.isDone();
+            nodeB.put("octocat", load("octocat"), millis(), Duration.ofMinutes(1));
+
+            // then
+            assertThat(doneBeforeReplicaB).isFalse(); // <-- the caller isn't held while the load waits on the lease
+            assertThat(result.get(5, TimeUnit.SECONDS).getDisplayName()).isEqualTo("load-1");
+            assertThat(loads).hasValue(1); // <-- only replica B went to GitHub
+        }
+    }
+
+    // ******** Helper methods ********
+    private UserProfileResponse load(String username) {
+        UserProfileResponse profile = new UserProfileResponse();
+        profile.setUserName(username);
+        profile.setDisplayName("load-" + loads.incrementAndGet());
+        return profile;
+    }
+
+    private ProfileCache replica(SharedProfileStore sharedStore) {
+        return new ProfileCache(properties, Runnable::run, nanos::get, this::millis, sharedStore);
+    }
+
+    private long millis() {
+        return nanos.get() / 1_000_000; // <-- wall clock on the same fake time
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+}
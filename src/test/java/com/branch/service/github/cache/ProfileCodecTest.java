@@ -0,0 +1,72 @@
+package com.branch.service.github.cache;
+
+import com.branch.service.github.model.dto.UserProfileResponse;
+import com.branch.service.github.model.dto.UserProfileResponse.RepoInfo;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+class ProfileCodecTest {
+
+    // ******** Tests ********
+    @Test
+    void encode_fullProfile_roundTripsAndIsSmallerThanJson() {
+        // given
+        UserProfileResponse profile = new UserProfileResponse();
+        profile.setUserName("octocat");
+        profile.setDisplayName("The Octocat – 🐙"); // <-- multi-byte UTF-8
+        profile.setAvatar("https://avatars.githubusercontent.com/u/583231?v=4");
+        profile.setGeoLocation("San Francisco");
+        profile.setUrl("https://api.github.com/users/octocat");
+        profile.setCreatedAt("Tue, 25 Jan 2011 18:44:36 GMT");
+        profile.setRepos(List.of(
+            new RepoInfo("Hello-World", "https://api.github.com/repos/octocat/Hello-World"),
+            new RepoInfo("Spoon-Knife", "https://api.github.com/repos/octocat/Spoon-Knife")));
+
+        // when
+        byte[] bytes = ProfileCodec.encode(profile, 1_700_000_000_123L);
+        SharedProfileStore.Entry decoded = ProfileCodec.decode(bytes);
+
+        // then
+        assertThat(decoded.writtenAtMillis()).isEqualTo(1_700_000_000_123L);
+        assertThat(decoded.profile()).usingRecursiveComparison().isEqualTo(profile);
+        assertThat(bytes.length).isLessThan(JsonMapper.builder().build().writeValueAsBytes(profile).length);
+    }
+
+    @Test
+    void encode_partialProfileWithoutRepos_keepsNullsAndFlag() {
+        // given
+        UserProfileResponse profile = new UserProfileResponse();
+        profile.setUserName("octocat");
+        profile.setPartial(true);
+
+        // when
+        UserProfileResponse decoded = ProfileCodec.decode(ProfileCodec.encode(profile, 0)).profile();
+
+        // then
+        assertThat(decoded.isPartial()).isTrue();
+        assertThat(decoded.getRepos()).isNull();
+        assertThat(decoded.getEmail()).isNull();
+        assertThat(decoded.getUserName()).isEqualTo("octocat");
+    }
+
+    @Test
+    void decode_otherVersionOrTruncated_throws() {
+        // given
+        UserProfileResponse profile = new UserProfileResponse();
+        profile.setUserName("octocat");
+        byte[] bytes = ProfileCodec.encode(profile, 0);
+        byte[] otherVersion = bytes.clone();
+        otherVersion[0] = ProfileCodec.VERSION + 1;
+
+        // when/then
+        assertThatThrownBy(() -> ProfileCodec.decode(otherVersion)).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("version");
+        assertThatThrownBy(() -> ProfileCodec.decode(Arrays.copyOf(bytes, bytes.length - 2))).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,108 @@
+package com.branch.service.github.client;
+
+import com.branch.service.github.client.CircuitBreaker.State;
+import com.branch.service.github.config.CircuitBreakerProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+class CircuitBreakerTest {
+    private final AtomicLong nanos = new AtomicLong(); // <-- fake clock so tests don't sleep
+    private CircuitBreaker circuitBreaker; // <-- class under test
+
+    @BeforeEach
+    void setUp() {
+        CircuitBreakerProperties properties = new CircuitBreakerProperties();
+        properties.setWindowSize(10);
+        properties.setMinimumCalls(4);
+        properties.setFailureRateThreshold(0.5);
+        properties.setOpenDuration(Duration.ofSeconds(30));
+        properties.setHalfOpenProbes(2);
+        circuitBreaker = new CircuitBreaker("repos", properties, nanos::get);
+    }
+
+    // ******** Tests ********
+    @Test
+    void onFailure_failureRateReached_opensAndFailsFast() {
+        // given
+        call(true);
+        call(false);
+        call(true);
+
+        // when
+        call(false); // <-- 2 of 4 failed
+
+        // then
+        assertThat(circuitBreaker.getState()).isEqualTo(State.OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void onFailure_belowMinimumCalls_staysClosed() {
+        // when
+        call(false);
+        call(false);
+        call(false);
+
+        // then
+        assertThat(circuitBreaker.getState()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    void tryAcquire_afterOpenDuration_letsProbesThroughAndClosesOnSuccess() {
+        // given
+        openCircuit();
+        advance(Duration.ofSeconds(30));
+
+        // when
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        assertThat(circuitBreaker.tryAcquire()).isFalse(); // <-- only 2 probes at a time
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+
+        // then
+        assertThat(circuitBreaker.getState()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    void onFailure_failedProbe_reopens() {
+        // given
+        openCircuit();
+        advance(Duration.ofSeconds(30));
+        circuitBreaker.tryAcquire();
+
+        // when
+        circuitBreaker.onFailure();
+
+        // then
+        assertThat(circuitBreaker.getState()).isEqualTo(State.OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+    }
+
+    // ******** Helper methods ********
+    private void call(boolean success) {
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        if (success) {
+            circuitBreaker.onSuccess();
+        } else {
+            circuitBreaker.onFailure();
+        }
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 4; i++) {
+            call(false);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(State.OPEN);
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+}
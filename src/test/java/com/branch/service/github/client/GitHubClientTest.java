@@ -0,0 +1,264 @@
+package com.branch.service.github.client;
+
+import com.branch.service.github.config.CircuitBreakerProperties;
+import com.branch.service.github.config.ExecutorProperties;
+import com.branch.service.github.config.HedgeProperties;
+import com.branch.service.github.config.RateLimitProperties;
+import com.branch.service.github.config.SnapshotProperties;
+import com.branch.service.github.exception.GitHubApiException;
+import com.branch.service.github.exception.RateLimitedException;
+import com.branch.service.github.exception.UserNotFoundException;
+import com.branch.service.github.model.github.RepoResponse;
+import com.branch.service.github.model.github.UserResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.restclient.test.autoconfigure.RestClientTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.client.MockRestServiceServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+
+@RestClientTest(properties = "github.api.repos.max-pages=3") // <-- binds the RestClient.Builder to a MockRestServiceServer
+@Import({GitHubClient.class, ConcurrencyLimitInterceptor.class, ConditionalRequestStore.class,
+    MetricsInterceptor.class, RateLimitTracker.class, RateLimitScheduler.class, CircuitBreakerInterceptor.class, SnapshotStore.class, Hedger.class,
+    GitHubClientTest.Config.class})
+@EnableConfigurationProperties({ExecutorProperties.class, RateLimitProperties.class, CircuitBreakerProperties.class, SnapshotProperties.class,
+    HedgeProperties.class})
+class GitHubClientTest {
+    private static final String USER_URL = "https://api.github.com/users/octocat";
+    private static final String REPOS_URL = "https://api.github.com/users/octocat/repos?per_page=100&page=";
+    @Autowired
+    private MockRestServiceServer server;
+    @Autowired
+    private GitHubClient gitHubClient; // <-- class under test
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private RateLimitTracker rateLimitTracker;
+
+    // ******** Tests ********
+    @Test
+    void getUserRepos_singlePage_returnsRepos() {
+        // given
+        server.expect(requestTo(REPOS_URL + 1)).andRespond(withSuccess(reposJson(1, 2), MediaType.APPLICATION_JSON));
+
+        // when
+        List<RepoResponse> result = gitHubClient.getUserRepos("octocat");
+
+        // then
+        assertThat(result).extracting(RepoResponse::name).containsExactly("repo-1", "repo-2");
+        server.verify();
+    }
+
+    @Test
+    void getUserRepos_multiplePages_followsLinkHeaderInPageOrder() {
+        // given
+        server.expect(requestTo(REPOS_URL + 1)).andRespond(withSuccess(reposJson(1, 2), MediaType.APPLICATION_JSON).headers(lastPageLink(3)));
+        server.expect(requestTo(REPOS_URL + 2)).andRespond(withSuccess(reposJson(3, 4), MediaType.APPLICATION_JSON).headers(lastPageLink(3)));
+        server.expect(requestTo(REPOS_URL + 3)).andRespond(withSuccess(reposJson(5, 5), MediaType.APPLICATION_JSON).headers(lastPageLink(3)));
+
+        // when
+        List<RepoResponse> result = gitHubClient.getUserRepos("octocat");
+
+        // then
+        assertThat(result).extracting(RepoResponse::name).containsExactly("repo-1", "repo-2", "repo-3", "repo-4", "repo-5");
+        server.verify();
+    }
+
+    @Test
+    void getUserRepos_morePagesThanMax_stopsAtMaxPages() {
+        // given
+        server.expect(requestTo(REPOS_URL + 1)).andRespond(withSuccess(reposJson(1, 1), MediaType.APPLICATION_JSON).headers(lastPageLink(50)));
+        server.expect(requestTo(REPOS_URL + 2)).andRespond(withSuccess(reposJson(2, 2), MediaType.APPLICATION_JSON));
+        server.expect(requestTo(REPOS_URL + 3)).andRespond(withSuccess(reposJson(3, 3), MediaType.APPLICATION_JSON));
+
+        // when
+        List<RepoResponse> result = gitHubClient.getUserRepos("octocat");
+
+        // then
+        assertThat(result).hasSize(3);
+        server.verify(); // <-- pages 4..50 were never requested
+    }
+
+    @Test
+    void streamUserRepos_multiplePages_handsOverOnePageAtATime() {
+        // given
+        server.expect(requestTo(REPOS_URL + 1)).andRespond(withSuccess(reposJson(1, 2), MediaType.APPLICATION_JSON).headers(lastPageLink(2)));
+        server.expect(requestTo(REPOS_URL + 2)).andRespond(withSuccess(reposJson(3, 3), MediaType.APPLICATION_JSON).headers(lastPageLink(2)));
+        List<List<String>> pages = new ArrayList<>();
+
+        // when
+        gitHubClient.streamUserRepos("octocat", page -> pages.add(page.stream().map(RepoResponse::name).toList()));
+
+        // then
+        assertThat(pages).containsExactly(List.of("repo-1", "repo-2"), List.of("repo-3"));
+        server.verify();
+    }
+
+    @Test
+    void streamUserRepos_consumerFails_stopsWithoutFetchingFurtherPages() {
+        // given
+        server.expect(requestTo(REPOS_URL + 1)).andRespond(withSuccess(reposJson(1, 2), MediaType.APPLICATION_JSON).headers(lastPageLink(50)));
+        server.expect(requestTo(REPOS_URL + 2)).andRespond(withSuccess(reposJson(3, 3), MediaType.APPLICATION_JSON)); // <-- prefetched
+        UncheckedIOException clientGone = new UncheckedIOException(new IOException("Broken pipe"));
+
+        // when/then
+        assertThatThrownBy(() -> gitHubClient.streamUserRepos("octocat", page -> {
+            throw clientGone;
+        })).isSameAs(clientGone);
+        server.verify(); // <-- pages 3..50 were never requested
+    }
+
+    @Test
+    void getUserRepos_userNotFound_throwsUserNotFoundException() {
+        // given
+        server.expect(requestTo(REPOS_URL + 1)).andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        // when/then
+        assertThatThrownBy(() -> gitHubClient.getUserRepos("octocat"))
+            .isInstanceOf(UserNotFoundException.class);
+    }
+
+    @Test
+    void getUserRepos_laterPageFails_throwsGitHubApiException() {
+        // given
+        server.expect(requestTo(REPOS_URL + 1)).andRespond(withSuccess(reposJson(1, 1), MediaType.APPLICATION_JSON).headers(lastPageLink(2)));
+        server.expect(requestTo(REPOS_URL + 2)).andRespond(withStatus(HttpStatus.INTERNAL_SERVER_ERROR));
+
+        // when/then
+        assertThatThrownBy(() -> gitHubClient.getUserRepos("octocat"))
+            .isInstanceOf(GitHubApiException.class);
+    }
+
+    @Test
+    void getUserInfo_notModified_reusesStoredBody() {
+        // given
+        HttpHeaders etag = new HttpHeaders();
+        etag.setETag("\"v1\"");
+        server.expect(requestTo(USER_URL)).andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+            .andRespond(withSuccess("{\"login\":\"octocat\",\"name\":\"The Octocat\"}", MediaType.APPLICATION_JSON).headers(etag));
+        server.expect(requestTo(USER_URL)).andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+            .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        // when
+        gitHubClient.getUserInfo("octocat");
+        UserResponse result = gitHubClient.getUserInfo("octocat");
+
+        // then
+        assertThat(result.getName()).isEqualTo("The Octocat");
+        server.verify();
+    }
+
+    @Test
+    void getUserRepos_notModified_reusesStoredPagesAndLinks() {
+        // given
+        HttpHeaders headers = lastPageLink(2);
+        headers.setETag("\"p1\"");
+        server.expect(requestTo(REPOS_URL + 1)).andRespond(withSuccess(reposJson(1, 1), MediaType.APPLICATION_JSON).headers(headers));
+        server.expect(requestTo(REPOS_URL + 2)).andRespond(withSuccess(reposJson(2, 2), MediaType.APPLICATION_JSON));
+        server.expect(requestTo(REPOS_URL + 1)).andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"p1\""))
+            .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+        server.expect(requestTo(REPOS_URL + 2)).andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+            .andRespond(withSuccess(reposJson(2, 2), MediaType.APPLICATION_JSON));
+
+        // when
+        gitHubClient.getUserRepos("octocat");
+        List<RepoResponse> result = gitHubClient.getUserRepos("octocat");
+
+        // then
+        assertThat(result).extracting(RepoResponse::name).containsExactly("repo-1", "repo-2");
+        server.verify(); // <-- page 2 was still requested, so the stored Link header was used
+    }
+
+    @Test
+    void getUserInfo_recordsLatencyByEndpointAndStatusAndRateLimit() {
+        // given
+        HttpHeaders rateLimit = new HttpHeaders();
+        rateLimit.add(RateLimitTracker.LIMIT, "5000");
+        rateLimit.add(RateLimitTracker.REMAINING, "4999");
+        rateLimit.add(RateLimitTracker.RESET, "1700000000");
+        server.expect(requestTo(USER_URL)).andRespond(withSuccess("{\"login\":\"octocat\"}", MediaType.APPLICATION_JSON).headers(rateLimit));
+        server.expect(requestTo(USER_URL)).andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        // when
+        gitHubClient.getUserInfo("octocat");
+        assertThatThrownBy(() -> gitHubClient.getUserInfo("octocat")).isInstanceOf(UserNotFoundException.class);
+
+        // then
+        assertThat(meterRegistry.get("github.api.requests").tags("endpoint", "user", "status", "200").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("github.api.requests").tags("endpoint", "user", "status", "404").timer().count()).isEqualTo(1);
+        assertThat(rateLimitTracker.getLimit()).isEqualTo(5000);
+        assertThat(rateLimitTracker.getRemaining()).isEqualTo(4999); // <-- kept from the earlier response (the 404 had no headers)
+        assertThat(rateLimitTracker.getResetEpochSecond()).isEqualTo(1700000000L);
+    }
+
+    @Test
+    @DirtiesContext // <-- the pause is shared by every GitHub call, so don't leak it into other tests
+    void getUserInfo_tooManyRequests_throwsRateLimitedAndPausesCalls() {
+        // given
+        HttpHeaders retryAfter = new HttpHeaders();
+        retryAfter.add(HttpHeaders.RETRY_AFTER, "30");
+        server.expect(requestTo(USER_URL)).andRespond(withStatus(HttpStatus.TOO_MANY_REQUESTS).headers(retryAfter));
+
+        // when/then
+        assertThatThrownBy(() -> gitHubClient.getUserInfo("octocat"))
+            .isInstanceOf(RateLimitedException.class)
+            .extracting("retryAfterSeconds").isEqualTo(30L);
+        assertThatThrownBy(() -> gitHubClient.getUserInfo("octocat")) // <-- refused locally, GitHub isn't called again
+            .isInstanceOf(RateLimitedException.class);
+        server.verify();
+    }
+
+    // ******** Helper methods ********
+    private static String reposJson(int from, int to) {
+        return IntStream.rangeClosed(from, to)
+            .mapToObj(i -> "{\"name\":\"repo-" + i + "\",\"url\":\"https://api.github.com/repos/octocat/repo-" + i + "\"}")
+            .collect(Collectors.joining(",", "[", "]"));
+    }
+
+    private static HttpHeaders lastPageLink(int lastPage) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.LINK, "<https://api.github.com/user/583231/repos?per_page=100&page=2>; rel=\"next\", "
+            + "<https://api.github.com/user/583231/repos?per_page=100&page=" + lastPage + ">; rel=\"last\"");
+        return headers;
+    }
+
+    // ******** Test configuration ********
+    @TestConfiguration
+    static class Config {
+        @Bean(name = "gitHubExecutor")
+        AsyncTaskExecutor gitHubExecutor() {
+            return new TaskExecutorAdapter(Runnable::run); // <-- run pages inline, so MockRestServiceServer sees them in order
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.branch.service.github.client;
+
+import com.branch.service.github.client.UpstreamContext.Priority;
+import com.branch.service.github.config.HedgeProperties;
+import com.branch.service.github.exception.DeadlineExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+class HedgerTest {
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final HedgeProperties properties = new HedgeProperties();
+    private Hedger hedger; // <-- class under test
+
+    @BeforeEach
+    void setUp() {
+        properties.setEnabled(true);
+        properties.setMinSamples(5);
+        properties.setMinDelay(Duration.ofMillis(20));
+        hedger = new Hedger(properties, new TaskExecutorAdapter(executor));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    // ******** Tests ********
+    @Test
+    void call_slowerThanPercentile_hedgesAndFirstAnswerWins() {
+        // given
+        warmUp();
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        long start = System.nanoTime();
+        String result = hedger.call(GitHubEndpoint.USER, () -> (calls.incrementAndGet() == 1) ? slow("primary") : "hedge");
+
+        // then
+        assertThat(result).isEqualTo("hedge");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1)); // <-- didn't wait for the primary
+        assertThat(hedger.getHedgedCount()).isEqualTo(1);
+        assertThat(hedger.getHedgeWinCount()).isEqualTo(1);
+    }
+
+    @Test
+    void call_hedgeWins_interruptsPrimary() throws InterruptedException {
+        // given
+        warmUp();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        // when
+        String result = hedger.call(GitHubEndpoint.USER, () -> (calls.incrementAndGet() == 1) ? slow("primary", interrupted) : "hedge");
+
+        // then
+        assertThat(result).isEqualTo("hedge");
+        assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue(); // <-- the losing call was stopped, not left running
+    }
+
+    @Test
+    void call_deadlinePasses_interruptsBothCalls() throws InterruptedException {
+        // given
+        warmUp();
+        CountDownLatch interrupted = new CountDownLatch(2);
+
+        // when / then
+        assertThatThrownBy(() -> UpstreamContext.callWithin(Duration.ofMillis(100),
+            () -> hedger.call(GitHubEndpoint.USER, () -> slow("slow", interrupted))))
+            .isInstanceOf(DeadlineExceededException.class);
+        assertThat(hedger.getHedgedCount()).isEqualTo(1);
+        assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue(); // <-- primary and hedge both stopped
+    }
+
+    @Test
+    void call_budgetSpent_waitsForPrimary() {
+        // given
+        properties.setBurst(1);
+        properties.setMaxRatio(0); // <-- nothing earned back
+        hedger = new Hedger(properties, new TaskExecutorAdapter(executor));
+        warmUp();
+        AtomicInteger first = new AtomicInteger();
+        hedger.call(GitHubEndpoint.USER, () -> (first.incrementAndGet() == 1) ? slow("primary") : "hedge"); // <-- spends the only hedge
+        AtomicInteger second = new AtomicInteger();
+
+        // when
+        String result = hedger.call(GitHubEndpoint.USER, () -> (second.incrementAndGet() == 1) ? sleep(200, "primary") : "hedge");
+
+        // then
+        assertThat(result).isEqualTo("primary");
+        assertThat(second).hasValue(1);
+        assertThat(hedger.getHedgedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void call_background_neverHedged() {
+        // given
+        warmUp();
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        String result = UpstreamContext.callAs(Priority.BACKGROUND,
+            () -> hedger.call(GitHubEndpoint.USER, () -> (calls.incrementAndGet() == 1) ? sleep(200, "primary") : "hedge"));
+
+        // then
+        assertThat(result).isEqualTo("primary");
+        assertThat(calls).hasValue(1);
+        assertThat(hedger.getHedgedCount()).isZero();
+    }
+
+    @Test
+    void call_disabled_runsOnCallingThread() {
+        // given
+        properties.setEnabled(false);
+        warmUp();
+        Thread caller = Thread.currentThread();
+
+        // when
+        Thread ranOn = hedger.call(GitHubEndpoint.USER, Thread::currentThread);
+
+        // then
+        assertThat(ranOn).isSameAs(caller);
+        assertThat(hedger.hedgeDelay(GitHubEndpoint.USER)).isNull();
+    }
+
+    // ******** Helper methods ********
+    // enough fast calls for the endpoint's percentile to count (so the hedge delay is min-delay)
+    private void warmUp() {
+        for (int i = 0; i < properties.getMinSamples(); i++) {
+            hedger.call(GitHubEndpoint.USER, () -> "warm-up");
+        }
+    }
+
+    private static String slow(String result) {
+        return sleep(5_000, result);
+    }
+
+    // slow, and counts the latch down when interrupted
+    private static String slow(String result, CountDownLatch interrupted) {
+        try {
+            Thread.sleep(5_000);
+        } catch (InterruptedException e) {
+            interrupted.countDown();
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+
+    private static String sleep(long millis, String result) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,98 @@
+package com.branch.service.github.client;
+
+import com.branch.service.github.client.UpstreamContext.Priority;
+import com.branch.service.github.config.RateLimitProperties;
+import com.branch.service.github.exception.RateLimitedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.InstanceOfAssertFactories.LONG;
+
+
+class RateLimitSchedulerTest {
+    private final AtomicLong nanos = new AtomicLong(); // <-- fake clock so tests don't sleep
+    private final RateLimitTracker rateLimitTracker = new RateLimitTracker();
+    private RateLimitScheduler rateLimitScheduler; // <-- class under test
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRequestsPerSecond(10);
+        properties.setBurst(2);
+        properties.setMaxWait(Duration.ZERO); // <-- never block, so an empty bucket is visible as a rejection
+        rateLimitScheduler = new RateLimitScheduler(properties, rateLimitTracker, nanos::get);
+    }
+
+    // ******** Tests ********
+    @Test
+    void acquire_burstSpent_rejectsUntilRefilled() throws Exception {
+        // given
+        rateLimitScheduler.acquire(Priority.USER);
+        rateLimitScheduler.acquire(Priority.USER);
+
+        // when/then
+        assertThatThrownBy(() -> rateLimitScheduler.acquire(Priority.USER))
+            .isInstanceOf(RateLimitedException.class);
+        advance(Duration.ofMillis(100)); // <-- one token at 10/s
+        rateLimitScheduler.acquire(Priority.USER);
+        assertThat(rateLimitScheduler.getRejectedCount(Priority.USER)).isEqualTo(1);
+    }
+
+    @Test
+    void acquire_budgetBelowReserve_rejectsBackgroundOnly() throws Exception {
+        // given
+        rateLimitTracker.update(rateLimitHeaders(5000, 100)); // <-- 2% left, reserve is 20%
+
+        // when/then
+        assertThatThrownBy(() -> rateLimitScheduler.acquire(Priority.BACKGROUND))
+            .isInstanceOf(RateLimitedException.class);
+        rateLimitScheduler.acquire(Priority.USER);
+        assertThat(rateLimitScheduler.getRejectedCount(Priority.BACKGROUND)).isEqualTo(1);
+    }
+
+    @Test
+    void acquire_budgetSpent_rejectsUntilReset() {
+        // given
+        rateLimitTracker.update(rateLimitHeaders(5000, 0));
+
+        // when/then
+        assertThatThrownBy(() -> rateLimitScheduler.acquire(Priority.USER))
+            .isInstanceOf(RateLimitedException.class)
+            .extracting("retryAfterSeconds").asInstanceOf(LONG)
+            .isGreaterThan(60L);
+    }
+
+    @Test
+    void cancelReservation_unusedToken_givenBack() throws Exception {
+        // given
+        rateLimitScheduler.reserve(Priority.USER);
+        rateLimitScheduler.reserve(Priority.USER);
+
+        // when
+        rateLimitScheduler.cancelReservation(); // <-- caller went away before its call went out
+
+        // then
+        rateLimitScheduler.acquire(Priority.USER);
+        assertThat(rateLimitScheduler.getRejectedCount(Priority.USER)).isZero();
+    }
+
+    // ******** Helper methods ********
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    private static HttpHeaders rateLimitHeaders(long limit, long remaining) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(RateLimitTracker.LIMIT, String.valueOf(limit));
+        headers.add(RateLimitTracker.REMAINING, String.valueOf(remaining));
+        headers.add(RateLimitTracker.RESET, String.valueOf(Instant.now().plusSeconds(600).getEpochSecond()));
+        return headers;
+    }
+}
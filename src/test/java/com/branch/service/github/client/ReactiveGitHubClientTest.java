@@ -0,0 +1,231 @@
+package com.branch.service.github.client;
+
+import com.branch.service.github.config.CircuitBreakerProperties;
+import com.branch.service.github.config.ExecutorProperties;
+import com.branch.service.github.config.GitHubHttpProperties;
+import com.branch.service.github.config.HttpClientConfig;
+import com.branch.service.github.config.RateLimitProperties;
+import com.branch.service.github.config.SnapshotProperties;
+import com.branch.service.github.exception.RateLimitedException;
+import com.branch.service.github.exception.UpstreamUnavailableException;
+import com.branch.service.github.exception.UserNotFoundException;
+import com.branch.service.github.model.github.RepoResponse;
+import com.branch.service.github.model.github.UserResponse;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.http.codec.autoconfigure.CodecsAutoConfiguration;
+import org.springframework.boot.jackson.autoconfigure.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.runner.ReactiveWebApplicationContextRunner;
+import org.springframework.boot.webclient.autoconfigure.WebClientAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+class ReactiveGitHubClientTest {
+    private final AtomicInteger userCalls = new AtomicInteger();
+    private final AtomicInteger notModified = new AtomicInteger();
+    private HttpServer server;
+    private ReactiveWebApplicationContextRunner contextRunner;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/users/octocat", this::octocat);
+        server.createContext("/users/bogususer", exchange -> respond(exchange, 404, "{\"message\":\"Not Found\"}"));
+        server.createContext("/users/slow", exchange -> {
+            try {
+                Thread.sleep(500); // <-- holds its pooled connection
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "{\"login\":\"slow\"}");
+        });
+        server.createContext("/users/limited", exchange -> {
+            userCalls.incrementAndGet();
+            exchange.getResponseHeaders().add("Retry-After", "30");
+            respond(exchange, 429, "{}");
+        });
+        server.start();
+        contextRunner = new ReactiveWebApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(JacksonAutoConfiguration.class, CodecsAutoConfiguration.class, WebClientAutoConfiguration.class))
+            .withUserConfiguration(ReactiveGitHubClient.class, // <-- class under test
+                ReactiveGitHubFilter.class, CircuitBreakerInterceptor.class, RateLimitScheduler.class, RateLimitTracker.class,
+                ConditionalRequestStore.class, SnapshotStore.class, HttpClientConfig.class, Config.class)
+            .withInitializer(context -> context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance())) // <-- Duration @Values
+            .withPropertyValues("github.api.base-url=http://localhost:" + server.getAddress().getPort(), "github.api.repos.per-page=2");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    // ******** Tests ********
+    @Test
+    void getUserRepos_multiplePages_returnsAllReposInPageOrder() {
+        contextRunner.run(context -> {
+            // when
+            List<RepoResponse> repos = context.getBean(ReactiveGitHubClient.class).getUserRepos("octocat").block();
+
+            // then
+            assertThat(repos).extracting(RepoResponse::name).containsExactly("repo-1", "repo-2", "repo-3", "repo-4", "repo-5");
+        });
+    }
+
+    @Test
+    void getUserInfo_notModified_reusesStoredBody() {
+        contextRunner.run(context -> {
+            // given
+            ReactiveGitHubClient client = context.getBean(ReactiveGitHubClient.class);
+            client.getUserInfo("octocat").block();
+
+            // when
+            UserResponse user = client.getUserInfo("octocat").block(); // <-- sent with If-None-Match, answered with a 304
+
+            // then
+            assertThat(user.getLogin()).isEqualTo("octocat");
+            assertThat(userCalls).hasValue(2);
+            assertThat(context.getBean(MeterRegistry.class).get("github.api.requests").tag("status", "304").timer().count()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void getUserInfo_snapshotsOn_revalidatesFromDiskAfterRestart(@TempDir Path dir) {
+        // given
+        ReactiveWebApplicationContextRunner withSnapshots = contextRunner
+            .withPropertyValues("github.snapshot.enabled=true", "github.snapshot.file=" + dir.resolve("snapshots.log"), "github.snapshot.fresh-for=0s");
+        withSnapshots.run(context -> context.getBean(ReactiveGitHubClient.class).getUserInfo("octocat").block());
+
+        withSnapshots.run(context -> {
+            // when
+            UserResponse user = context.getBean(ReactiveGitHubClient.class).getUserInfo("octocat").block(); // <-- store read and written off the event loop
+
+            // then
+            assertThat(user.getName()).isEqualTo("The Octocat");
+            assertThat(notModified).hasValue(1); // <-- the ETag came back from the file
+        });
+    }
+
+    @Test
+    void getUserInfo_youngSnapshotAfterRestart_isReusedWithoutAskingGitHub(@TempDir Path dir) {
+        // given
+        ReactiveWebApplicationContextRunner withSnapshots = contextRunner
+            .withPropertyValues("github.snapshot.enabled=true", "github.snapshot.file=" + dir.resolve("snapshots.log"));
+        withSnapshots.run(context -> context.getBean(ReactiveGitHubClient.class).getUserInfo("octocat").block());
+
+        withSnapshots.run(context -> {
+            // when
+            UserResponse user = context.getBean(ReactiveGitHubClient.class).getUserInfo("octocat").block();
+
+            // then
+            assertThat(user.getName()).isEqualTo("The Octocat");
+            assertThat(userCalls).hasValue(1); // <-- only the call before the restart
+        });
+    }
+
+    @Test
+    void getUserInfo_notFound_throwsUserNotFoundException() {
+        contextRunner.run(context -> {
+            // when/then
+            assertThatThrownBy(() -> context.getBean(ReactiveGitHubClient.class).getUserInfo("bogususer").block())
+                .isInstanceOf(UserNotFoundException.class);
+        });
+    }
+
+    @Test
+    void getUserInfo_tooManyRequests_throwsRateLimitedAndPausesCalls() {
+        contextRunner.run(context -> {
+            // given
+            ReactiveGitHubClient client = context.getBean(ReactiveGitHubClient.class);
+
+            // when/then
+            assertThatThrownBy(() -> client.getUserInfo("limited").block())
+                .isInstanceOf(RateLimitedException.class)
+                .extracting("retryAfterSeconds").isEqualTo(30L);
+            assertThatThrownBy(() -> client.getUserInfo("limited").block()) // <-- refused locally, GitHub isn't called again
+                .isInstanceOf(RateLimitedException.class);
+            assertThat(userCalls).hasValue(1);
+        });
+    }
+
+    @Test
+    void getUserInfo_poolFull_throwsUpstreamUnavailable() {
+        contextRunner.withPropertyValues("github.http.max-connections=1", "github.http.max-pending=0").run(context -> {
+            // given
+            ReactiveGitHubClient client = context.getBean(ReactiveGitHubClient.class);
+            client.getUserInfo("slow").subscribe();
+            Thread.sleep(100); // <-- the only connection is taken
+
+            // when/then
+            assertThatThrownBy(() -> client.getUserInfo("octocat").block()) // <-- refused by the pool (the bulkhead), not an API error
+                .isInstanceOf(UpstreamUnavailableException.class)
+                .hasMessage("GitHub bulkhead full");
+        });
+    }
+
+    // ******** Helper methods ********
+    // user, or a 5-repo list in pages of 2 (with If-None-Match support on the user)
+    private void octocat(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (!path.endsWith("/repos")) {
+            userCalls.incrementAndGet();
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            respond(exchange, 200, "{\"login\":\"octocat\",\"name\":\"The Octocat\"}");
+            return;
+        }
+        String query = exchange.getRequestURI().getQuery();
+        int page = Integer.parseInt(query.replaceAll(".*page=(\\d+).*", "$1"));
+        exchange.getResponseHeaders().add("Link", "<http://localhost/users/octocat/repos?per_page=2&page=3>; rel=\"last\"");
+        int from = (page - 1) * 2 + 1;
+        respond(exchange, 200, IntStream.rangeClosed(from, Math.min(from + 1, 5))
+            .mapToObj(i -> "{\"name\":\"repo-" + i + "\"}")
+            .collect(Collectors.joining(",", "[", "]")));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(bytes);
+        }
+    }
+
+    // ******** Test configuration ********
+    @EnableConfigurationProperties({GitHubHttpProperties.class, ExecutorProperties.class, RateLimitProperties.class,
+        CircuitBreakerProperties.class, SnapshotProperties.class})
+    static class Config {
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.branch.service.github.client;
+
+import com.branch.service.github.model.github.RepoResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+class RepoListHttpMessageConverterTest {
+    private static final ResolvableType REPO_LIST_TYPE = ResolvableType.forClassWithGenerics(List.class, RepoResponse.class);
+    private final RepoListHttpMessageConverter converter = new RepoListHttpMessageConverter(); // <-- class under test
+
+    // ******** Tests ********
+    @Test
+    void read_fullGitHubRepos_keepsNameAndUrlOnly() throws Exception {
+        // given
+        String json = """
+            [{"id": 1296269, "name": "Hello-World", "full_name": "octocat/Hello-World",
+              "owner": {"login": "octocat", "url": "https://api.github.com/users/octocat", "name": "not-a-repo-name"},
+              "url": "https://api.github.com/repos/octocat/Hello-World", "description": null, "fork": false,
+              "topics": ["octocat", {"url": "nested"}], "license": {"name": "MIT License"}, "stargazers_count": 80},
+             {"url": "https://api.github.com/repos/octocat/Spoon-Knife", "permissions": {"admin": false}, "name": "Spoon-Knife"}]
+            """;
+
+        // when
+        List<RepoResponse> repos = converter.read(REPO_LIST_TYPE, input(json), null);
+
+        // then
+        assertThat(repos).containsExactly(
+            new RepoResponse("Hello-World", "https://api.github.com/repos/octocat/Hello-World"),
+            new RepoResponse("Spoon-Knife", "https://api.github.com/repos/octocat/Spoon-Knife"));
+    }
+
+    @Test
+    void read_notAnArray_throwsNotReadable() {
+        // when/then
+        assertThatThrownBy(() -> converter.read(REPO_LIST_TYPE, input("{\"message\":\"Not Found\"}"), null))
+            .isInstanceOf(HttpMessageNotReadableException.class)
+            .hasMessageContaining("expected an array of repos");
+    }
+
+    @Test
+    void canRead_onlyRepoListsAsJson() {
+        // when/then
+        assertThat(converter.canRead(REPO_LIST_TYPE, MediaType.parseMediaType("application/json; charset=utf-8"))).isTrue();
+        assertThat(converter.canRead(ResolvableType.forClassWithGenerics(List.class, String.class), MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.canRead(ResolvableType.forClass(RepoResponse.class), MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.canWrite(REPO_LIST_TYPE, List.class, MediaType.APPLICATION_JSON)).isFalse();
+    }
+
+    // ******** Helper methods ********
+    private static MockHttpInputMessage input(String json) {
+        MockHttpInputMessage input = new MockHttpInputMessage(json.getBytes(StandardCharsets.UTF_8));
+        input.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return input;
+    }
+}
@@ -0,0 +1,159 @@
+package com.branch.service.github.client;
+
+import com.branch.service.github.client.ConditionalRequestStore.StoredResponse;
+import com.branch.service.github.config.SnapshotProperties;
+import com.branch.service.github.model.github.RepoResponse;
+import com.branch.service.github.model.github.UserResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.ParameterizedTypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+class SnapshotStoreTest {
+    private static final ParameterizedTypeReference<UserResponse> USER_TYPE = ParameterizedTypeReference.forType(UserResponse.class);
+    private static final ParameterizedTypeReference<List<RepoResponse>> REPO_LIST_TYPE = new ParameterizedTypeReference<>() {};
+    @TempDir
+    private Path dir;
+
+    // ******** Tests ********
+    @Test
+    void read_afterRestart_returnsLatestSnapshotPerKey() {
+        // given
+        long fetchedAt = System.currentTimeMillis();
+        contextRunner().run(context -> {
+            SnapshotStore snapshotStore = context.getBean(SnapshotStore.class);
+            snapshotStore.append("user:octocat", new StoredResponse<>("\"v1\"", null, null, user("The Octocat"), fetchedAt));
+            snapshotStore.append("user:octocat", new StoredResponse<>("\"v2\"", null, null, user("Mona"), fetchedAt));
+            snapshotStore.append("repos:octocat:1", new StoredResponse<>("\"p1\"", null, "<...>; rel=\"last\"", List.of(repo("hello-world")), fetchedAt));
+        });
+
+        // when
+        contextRunner().run(context -> {
+            SnapshotStore snapshotStore = context.getBean(SnapshotStore.class); // <-- class under test (new instance, same file)
+            StoredResponse<UserResponse> user = snapshotStore.read("user:octocat", USER_TYPE);
+            StoredResponse<List<RepoResponse>> repos = snapshotStore.read("repos:octocat:1", REPO_LIST_TYPE);
+
+            // then
+            assertThat(user.etag()).isEqualTo("\"v2\"");
+            assertThat(user.body().getName()).isEqualTo("Mona");
+            assertThat(user.fetchedAt()).isEqualTo(fetchedAt);
+            assertThat(repos.link()).isEqualTo("<...>; rel=\"last\"");
+            assertThat(repos.body()).extracting(RepoResponse::name).containsExactly("hello-world");
+            assertThat(snapshotStore.read("user:nobody", USER_TYPE)).isNull();
+        });
+    }
+
+    @Test
+    void read_tornLastRecord_isDroppedAndFileStaysAppendable() throws Exception {
+        // given
+        contextRunner().run(context -> context.getBean(SnapshotStore.class)
+            .append("user:octocat", new StoredResponse<>("\"v1\"", null, null, user("The Octocat"), System.currentTimeMillis())));
+        Files.write(dir.resolve("snapshots.log"), new byte[] {0, 0, 0, 12, 'u', 's'}, StandardOpenOption.APPEND); // <-- crash mid-write
+
+        // when
+        contextRunner().run(context -> {
+            SnapshotStore snapshotStore = context.getBean(SnapshotStore.class);
+            snapshotStore.append("user:mona", new StoredResponse<>("\"m1\"", null, null, user("Mona"), System.currentTimeMillis()));
+
+            // then
+            assertThat(snapshotStore.read("user:octocat", USER_TYPE).etag()).isEqualTo("\"v1\"");
+            assertThat(snapshotStore.read("user:mona", USER_TYPE).etag()).isEqualTo("\"m1\"");
+        });
+    }
+
+    @Test
+    void read_revalidatedAfterAppend_returnsBodyWithLatestFetchTime() {
+        // given
+        long twoDaysAgo = System.currentTimeMillis() - Duration.ofDays(2).toMillis();
+        long now = System.currentTimeMillis();
+        contextRunner().run(context -> {
+            SnapshotStore snapshotStore = context.getBean(SnapshotStore.class);
+            snapshotStore.append("user:octocat", new StoredResponse<>("\"v1\"", null, null, user("The Octocat"), twoDaysAgo));
+            snapshotStore.revalidated("user:octocat", now); // <-- a 304, older than max-age otherwise
+        });
+
+        // when
+        contextRunner().run(context -> {
+            StoredResponse<UserResponse> user = context.getBean(SnapshotStore.class).read("user:octocat", USER_TYPE);
+
+            // then
+            assertThat(user.etag()).isEqualTo("\"v1\"");
+            assertThat(user.body().getName()).isEqualTo("The Octocat");
+            assertThat(user.fetchedAt()).isEqualTo(now);
+            assertThat(user.restored()).isTrue();
+        });
+    }
+
+    @Test
+    void read_olderThanMaxAge_isIgnored() {
+        // given
+        long twoDaysAgo = System.currentTimeMillis() - Duration.ofDays(2).toMillis();
+        contextRunner().run(context -> context.getBean(SnapshotStore.class)
+            .append("user:octocat", new StoredResponse<>("\"v1\"", null, null, user("The Octocat"), twoDaysAgo)));
+
+        // when/then
+        contextRunner().run(context -> assertThat(context.getBean(SnapshotStore.class).read("user:octocat", USER_TYPE)).isNull());
+    }
+
+    @Test
+    void append_pastCompactAbove_rewritesLiveRecordsOnly() throws Exception {
+        // given
+        Path file = dir.resolve("snapshots.log");
+        long revalidatedAt = System.currentTimeMillis();
+        contextRunner().withPropertyValues("github.snapshot.compact-above=2KB").run(context -> {
+            SnapshotStore snapshotStore = context.getBean(SnapshotStore.class);
+            snapshotStore.append("user:mona", new StoredResponse<>("\"m1\"", null, null, user("Mona"), 1_000L));
+            snapshotStore.revalidated("user:mona", revalidatedAt);
+
+            // when
+            for (int i = 0; i < 50; i++) {
+                snapshotStore.append("user:octocat", new StoredResponse<>("\"v" + i + "\"", null, null, user("The Octocat"), System.currentTimeMillis()));
+            }
+
+            // then
+            assertThat(Files.size(file)).isLessThan(2048);
+            assertThat(snapshotStore.read("user:octocat", USER_TYPE).etag()).isEqualTo("\"v49\"");
+            assertThat(snapshotStore.read("user:mona", USER_TYPE).etag()).isEqualTo("\"m1\"");
+        });
+        contextRunner().run(context -> {
+            SnapshotStore snapshotStore = context.getBean(SnapshotStore.class);
+            assertThat(snapshotStore.read("user:octocat", USER_TYPE).etag()).isEqualTo("\"v49\"");
+            assertThat(snapshotStore.read("user:mona", USER_TYPE).fetchedAt()).isEqualTo(revalidatedAt); // <-- the 304 folded into the rewritten record
+        });
+    }
+
+    // ******** Helper methods ********
+    private ApplicationContextRunner contextRunner() {
+        return new ApplicationContextRunner()
+            .withBean(JsonMapper.class, JsonMapper::new)
+            .withUserConfiguration(SnapshotStore.class, Properties.class)
+            .withPropertyValues("github.snapshot.enabled=true", "github.snapshot.file=" + dir.resolve("snapshots.log"), "github.snapshot.max-age=1d");
+    }
+
+    private static UserResponse user(String name) {
+        UserResponse user = new UserResponse();
+        user.setLogin("octocat");
+        user.setName(name);
+        return user;
+    }
+
+    private static RepoResponse repo(String name) {
+        return new RepoResponse(name, "https://github.com/octocat/" + name);
+    }
+
+    // ******** Test configuration ********
+    @EnableConfigurationProperties(SnapshotProperties.class)
+    static class Properties {
+    }
+}
@@ -0,0 +1,152 @@
+package com.branch.service.github.config;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.http.client.ClientHttpRequestFactoryBuilder;
+import org.springframework.boot.http.client.HttpClientSettings;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+class HttpClientConfigTest {
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet(); // <-- one port per TCP connection
+    private final List<String> acceptEncodings = new CopyOnWriteArrayList<>();
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withUserConfiguration(HttpClientConfig.class, Properties.class); // <-- class under test
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/users/octocat", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            respond(exchange, "{\"login\":\"octocat\"}");
+        });
+        server.createContext("/users/octocat/repos", exchange -> {
+            acceptEncodings.add(String.valueOf(exchange.getRequestHeaders().getFirst("Accept-Encoding")));
+            byte[] json = "[{\"name\":\"hello-world\"}]".getBytes(StandardCharsets.UTF_8);
+            boolean gzip = String.valueOf(exchange.getRequestHeaders().getFirst("Accept-Encoding")).contains("gzip");
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            if (gzip) {
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream body = gzip ? new GZIPOutputStream(exchange.getResponseBody()) : exchange.getResponseBody()) {
+                body.write(json);
+            }
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(2_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, "{}");
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    // ******** Tests ********
+    @Test
+    void restClient_sequentialCalls_reuseOneConnection() {
+        contextRunner.run(context -> {
+            // given
+            RestClient restClient = restClient(context.getBean(ClientHttpRequestFactoryBuilder.class), context.getBean(HttpClientSettings.class));
+
+            // when
+            for (int i = 0; i < 5; i++) {
+                restClient.get().uri("/users/octocat").retrieve().toEntity(String.class);
+            }
+
+            // then
+            assertThat(clientPorts).hasSize(1); // <-- kept alive and reused, no new TCP connection per call
+        });
+    }
+
+    @Test
+    void restClient_slowResponse_failsAfterReadTimeout() {
+        contextRunner.withPropertyValues("github.http.read-timeout=200ms").run(context -> {
+            // given
+            RestClient restClient = restClient(context.getBean(ClientHttpRequestFactoryBuilder.class), context.getBean(HttpClientSettings.class));
+
+            // when/then
+            assertThatThrownBy(() -> restClient.get().uri("/slow").retrieve().toEntity(String.class))
+                .isInstanceOf(ResourceAccessException.class);
+        });
+    }
+
+    @Test
+    void restClient_compressionEnabled_requestsGzipAndInflatesBody() {
+        contextRunner.run(context -> {
+            // given
+            RestClient restClient = restClient(context.getBean(ClientHttpRequestFactoryBuilder.class), context.getBean(HttpClientSettings.class));
+
+            // when
+            String body = restClient.get().uri("/users/octocat/repos").retrieve().body(String.class);
+
+            // then
+            assertThat(acceptEncodings).singleElement().asString().contains("gzip");
+            assertThat(body).isEqualTo("[{\"name\":\"hello-world\"}]");
+        });
+    }
+
+    @Test
+    void restClient_compressionDisabled_doesNotRequestGzip() {
+        contextRunner.withPropertyValues("github.http.compression=false").run(context -> {
+            // given
+            RestClient restClient = restClient(context.getBean(ClientHttpRequestFactoryBuilder.class), context.getBean(HttpClientSettings.class));
+
+            // when
+            restClient.get().uri("/users/octocat/repos").retrieve().body(String.class);
+
+            // then
+            assertThat(acceptEncodings).singleElement().asString().doesNotContain("gzip");
+        });
+    }
+
+    // ******** Helper methods ********
+    private RestClient restClient(ClientHttpRequestFactoryBuilder<?> factoryBuilder, HttpClientSettings settings) {
+        return RestClient.builder()
+            .baseUrl("http://localhost:" + server.getAddress().getPort())
+            .requestFactory(factoryBuilder.build(settings))
+            .build();
+    }
+
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(bytes);
+        }
+    }
+
+    // ******** Test configuration ********
+    @EnableConfigurationProperties(GitHubHttpProperties.class)
+    static class Properties {
+    }
+}
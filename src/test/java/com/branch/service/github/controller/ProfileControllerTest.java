@@ -1,27 +1,53 @@
 package com.branch.service.github.controller;
 
+import com.branch.service.github.client.UpstreamContext;
+import com.branch.service.github.config.DeadlineProperties;
+import com.branch.service.github.exception.DeadlineExceededException;
 import com.branch.service.github.exception.GitHubApiException;
+import com.branch.service.github.exception.InvalidRequestException;
+import com.branch.service.github.exception.RateLimitedException;
 import com.branch.service.github.exception.UserNotFoundException;
+import com.branch.service.github.model.dto.BatchProfileResponse;
+import com.branch.service.github.model.dto.ErrorResponse;
 import com.branch.service.github.model.dto.UserProfileResponse;
+import com.branch.service.github.service.BatchProfileService;
 import com.branch.service.github.service.ProfileService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.assertj.MockMvcTester;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 
 @WebMvcTest(ProfileController.class) // <-- loads the Spring web layer
+@EnableConfigurationProperties(DeadlineProperties.class)
 class ProfileControllerTest {
     @Autowired
     private MockMvcTester mockMvc; // <-- MockMvcTester simulates an HTTP request to test the full web layer without a real server
     @MockitoBean // <-- use spring context
     private ProfileService profileService;
+    @MockitoBean
+    private BatchProfileService batchProfileService;
 
     // ******** Tests ********
     @Test
@@ -38,6 +64,114 @@ class ProfileControllerTest {
             .extractingPath("$.user_name").isEqualTo("octocat");
     }
 
+    @Test
+    void getUserProfile_acceptAll_returnsJson() {
+        // given
+        when(profileService.getUserProfile("octocat")).thenReturn(createTestProfile());
+
+        // when/then
+        assertThat(mockMvc.get().uri("/api/v1/users/octocat/profile").accept(MediaType.ALL)) // <-- i.e. - curl's default
+            .hasStatusOk()
+            .hasContentTypeCompatibleWith(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    void getUserProfile_fieldsWithoutRepos_returnsOnlyThoseFields() {
+        // given
+        when(profileService.getUserProfileWithoutRepos("octocat")).thenReturn(createTestProfile());
+
+        // when/then
+        assertThat(mockMvc.get().uri("/api/v1/users/octocat/profile?fields=user_name,avatar"))
+            .hasStatusOk()
+            .bodyJson()
+            .isStrictlyEqualTo("""
+                {"user_name": "octocat", "avatar": "https://avatars.githubusercontent.com/u/583231"}
+                """);
+        verify(profileService, never()).getUserProfile(anyString()); // <-- repos are never fetched
+    }
+
+    @Test
+    void getUserProfile_fieldsWithRepoCount_fetchesRepos() {
+        // given
+        when(profileService.getUserProfile("octocat")).thenReturn(createTestProfile());
+
+        // when/then
+        assertThat(mockMvc.get().uri("/api/v1/users/octocat/profile?fields=user_name,repo_count"))
+            .hasStatusOk()
+            .bodyJson()
+            .isStrictlyEqualTo("""
+                {"user_name": "octocat", "repo_count": 2}
+                """);
+    }
+
+    @Test
+    void getUserProfile_returnsETagAndMaxAgeOfRemainingFreshness() {
+        // given
+        when(profileService.getUserProfile("octocat")).thenReturn(createTestProfile());
+        when(profileService.getRemainingFreshness("octocat", true)).thenReturn(Duration.ofSeconds(42));
+
+        // when/then
+        assertThat(mockMvc.get().uri("/api/v1/users/octocat/profile"))
+            .hasStatusOk()
+            .hasHeader(HttpHeaders.CACHE_CONTROL, "max-age=42, public")
+            .hasHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT) // <-- same URL as the NDJSON stream
+            .headers().hasHeaderSatisfying(HttpHeaders.ETAG, etag -> assertThat(etag).singleElement().asString().matches("\"[0-9a-f]{16}\""));
+    }
+
+    @Test
+    void getUserProfile_ifNoneMatchCurrent_returns304WithoutBody() {
+        // given
+        when(profileService.getUserProfile("octocat")).thenReturn(createTestProfile());
+        when(profileService.getRemainingFreshness("octocat", true)).thenReturn(Duration.ofSeconds(42));
+        String etag = mockMvc.get().uri("/api/v1/users/octocat/profile").exchange().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // when/then
+        assertThat(mockMvc.get().uri("/api/v1/users/octocat/profile").header(HttpHeaders.IF_NONE_MATCH, "\"other\", " + etag))
+            .hasStatus(HttpStatus.NOT_MODIFIED)
+            .hasHeader(HttpHeaders.ETAG, etag)
+            .hasHeader(HttpHeaders.CACHE_CONTROL, "max-age=42, public")
+            .body().isEmpty();
+    }
+
+    @Test
+    void getUserProfile_ifNoneMatchOutdated_returnsProfile() {
+        // given
+        when(profileService.getUserProfile("octocat")).thenReturn(createTestProfile());
+        String etag = mockMvc.get().uri("/api/v1/users/octocat/profile").exchange().getResponse().getHeader(HttpHeaders.ETAG);
+        UserProfileResponse changed = createTestProfile();
+        changed.setRepos(List.of(new UserProfileResponse.RepoInfo("hello-world", "https://github.com/octocat/hello-world")));
+        when(profileService.getUserProfile("octocat")).thenReturn(changed);
+
+        // when/then
+        assertThat(mockMvc.get().uri("/api/v1/users/octocat/profile").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .hasStatusOk()
+            .bodyJson()
+            .extractingPath("$.repo_count").isEqualTo(1);
+    }
+
+    @Test
+    void getUserProfile_partialProfile_isNotCacheable() {
+        // given
+        UserProfileResponse partial = createTestProfile();
+        partial.setPartial(true);
+        when(profileService.getUserProfile("octocat")).thenReturn(partial);
+
+        // when/then
+        assertThat(mockMvc.get().uri("/api/v1/users/octocat/profile"))
+            .hasStatusOk()
+            .hasHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+    }
+
+    @Test
+    void getUserProfile_unknownField_returns400() {
+        // when/then
+        assertThat(mockMvc.get().uri("/api/v1/users/octocat/profile?fields=user_name,password"))
+            .hasStatus(400)
+            .bodyJson()
+            .extractingPath("$.message").asString().startsWith("unknown field [password]");
+        verifyNoInteractions(profileService);
+    }
+
     @Test
     void getUserProfile_userNotFound_returns404() {
         // given
@@ -51,6 +185,15 @@ class ProfileControllerTest {
             .extractingPath("$.message").isEqualTo("User not found: bogususer");
     }
 
+    @Test
+    void unknownPath_returns404() {
+        // when/then
+        assertThat(mockMvc.get().uri("/swagger-ui.html")) // <-- no springdoc in the test slice (nor in production builds)
+            .hasStatus(404)
+            .bodyJson()
+            .extractingPath("$.message").isEqualTo("not found");
+    }
+
     @Test
     void getUserProfile_gitHubApiError_returns502() {
         // given
@@ -64,6 +207,166 @@ class ProfileControllerTest {
             .extractingPath("$.message").isEqualTo("GitHub API error");
     }
 
+    @Test
+    void getUserProfile_requestTimeout_becomesDeadlineOfGitHubCalls() {
+        // given
+        List<Duration> remaining = new ArrayList<>();
+        when(profileService.getUserProfile("octocat")).thenAnswer(invocation -> {
+            remaining.add(UpstreamContext.remaining()); // <-- what the GitHub calls would see
+            return createTestProfile();
+        });
+
+        // when
+        assertThat(mockMvc.get().uri("/api/v1/users/octocat/profile").header("X-Request-Timeout", "800ms")).hasStatusOk();
+        assertThat(mockMvc.get().uri("/api/v1/users/octocat/profile").header("X-Request-Timeout", "1h")).hasStatusOk();
+
+        // then
+        assertThat(remaining.get(0)).isPositive().isLessThanOrEqualTo(Duration.ofMillis(800));
+        assertThat(remaining.get(1)).isLessThanOrEqualTo(Duration.ofSeconds(30)); // <-- capped at max-timeout
+        assertThat(UpstreamContext.remaining()).isNull(); // <-- not left behind on the request thread
+    }
+
+    @Test
+    void getUserProfile_invalidRequestTimeout_returns400() {
+        // when/then
+        assertThat(mockMvc.get().uri("/api/v1/users/octocat/profile").header("X-Request-Timeout", "soon"))
+            .hasStatus(400)
+            .bodyJson()
+            .extractingPath("$.message").isEqualTo("invalid X-Request-Timeout [soon]");
+        assertThat(mockMvc.get().uri("/api/v1/users/octocat/profile").header("X-Request-Timeout", "0"))
+            .hasStatus(400);
+        verifyNoInteractions(profileService);
+    }
+
+    @Test
+    void getUserProfile_deadlineExceeded_returns504() {
+        // given
+        when(profileService.getUserProfile("octocat"))
+            .thenThrow(new DeadlineExceededException("request deadline passed before calling GitHub [user]"));
+
+        // when/then
+        assertThat(mockMvc.get().uri("/api/v1/users/octocat/profile"))
+            .hasStatus(504)
+            .bodyJson()
+            .extractingPath("$.message").isEqualTo("GitHub did not answer within the request deadline");
+    }
+
+    @Test
+    void getUserProfile_rateLimited_returns503WithRetryAfter() {
+        // given
+        when(profileService.getUserProfile("octocat"))
+            .thenThrow(new RateLimitedException("GitHub rate limit exceeded", 42));
+
+        // when/then
+        assertThat(mockMvc.get().uri("/api/v1/users/octocat/profile"))
+            .hasStatus(503)
+            .hasHeader("Retry-After", "42")
+            .bodyJson()
+            .extractingPath("$.message").isEqualTo("GitHub rate limit exceeded");
+    }
+
+    @Test
+    void streamUserProfile_writesProfileThenOneRepoPerLine() {
+        // given
+        UserProfileResponse header = createTestProfile();
+        header.setRepos(null); // <-- repos are streamed separately
+        when(profileService.getStreamedProfileHeader("octocat")).thenReturn(header);
+        doAnswer(invocation -> {
+            Consumer<List<UserProfileResponse.RepoInfo>> pageConsumer = invocation.getArgument(1);
+            pageConsumer.accept(List.of(new UserProfileResponse.RepoInfo("hello-world", "https://github.com/octocat/hello-world")));
+            pageConsumer.accept(List.of(new UserProfileResponse.RepoInfo("spoon-knife", "https://github.com/octocat/spoon-knife")));
+            return null;
+        }).when(profileService).streamUserRepos(eq("octocat"), any());
+
+        // when/then
+        assertThat(mockMvc.get().uri("/api/v1/users/octocat/profile").accept(MediaType.APPLICATION_NDJSON))
+            .hasStatusOk()
+            .hasContentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+            .hasHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+            .bodyText()
+            .satisfies(body -> {
+                String[] lines = body.split("\n");
+                assertThat(lines).hasSize(3);
+                assertThat(lines[0]).contains("\"user_name\":\"octocat\"").doesNotContain("repos");
+                assertThat(lines[1]).isEqualTo("{\"name\":\"hello-world\",\"url\":\"https://github.com/octocat/hello-world\"}");
+                assertThat(lines[2]).isEqualTo("{\"name\":\"spoon-knife\",\"url\":\"https://github.com/octocat/spoon-knife\"}");
+            });
+    }
+
+    @Test
+    void streamUserProfile_streamsReposWithinStreamTimeout() {
+        // given
+        UserProfileResponse header = createTestProfile();
+        header.setRepos(null);
+        when(profileService.getStreamedProfileHeader("octocat")).thenReturn(header);
+        AtomicReference<Duration> remaining = new AtomicReference<>();
+        doAnswer(invocation -> {
+            remaining.set(UpstreamContext.remaining());
+            return null;
+        }).when(profileService).streamUserRepos(eq("octocat"), any());
+
+        // when
+        assertThat(mockMvc.get().uri("/api/v1/users/octocat/profile").accept(MediaType.APPLICATION_NDJSON)).hasStatusOk();
+
+        // then
+        assertThat(remaining.get()).isPositive().isLessThanOrEqualTo(Duration.ofMinutes(2)); // <-- the stream-timeout, not the request's
+    }
+
+    @Test
+    void streamUserProfile_userNotFound_returns404() {
+        // given
+        when(profileService.getStreamedProfileHeader("bogususer"))
+            .thenThrow(new UserNotFoundException("bogususer"));
+
+        // when/then
+        assertThat(mockMvc.get().uri("/api/v1/users/bogususer/profile").accept(MediaType.APPLICATION_NDJSON))
+            .hasStatus(404)
+            .bodyJson()
+            .extractingPath("$.message").isEqualTo("User not found: bogususer");
+    }
+
+    @Test
+    void getUserProfiles_returnsPerUserResults() {
+        // given
+        when(batchProfileService.getUserProfiles(List.of("octocat", "bogususer")))
+            .thenReturn(new BatchProfileResponse(List.of(
+                new BatchProfileResponse.Result("octocat", createTestProfile()),
+                new BatchProfileResponse.Result("bogususer", new ErrorResponse(404, "User not found: bogususer"))
+            )));
+
+        // when/then
+        assertThat(mockMvc.post().uri("/api/v1/users/profiles").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"usernames\": [\"octocat\", \"bogususer\"]}"))
+            .hasStatusOk()
+            .bodyJson()
+            .isLenientlyEqualTo("""
+                {"results": [
+                  {"username": "octocat", "status": 200, "profile": {"user_name": "octocat"}},
+                  {"username": "bogususer", "status": 404, "error": {"status": 404, "message": "User not found: bogususer"}}
+                ]}
+                """);
+    }
+
+    @Test
+    void getUserProfiles_invalidRequest_returns400() {
+        // given
+        when(batchProfileService.getUserProfiles(List.of()))
+            .thenThrow(new InvalidRequestException("usernames must not be empty"));
+
+        // when/then
+        assertThat(mockMvc.post().uri("/api/v1/users/profiles").contentType(MediaType.APPLICATION_JSON).content("{\"usernames\": []}"))
+            .hasStatus(400)
+            .bodyJson()
+            .extractingPath("$.message").isEqualTo("usernames must not be empty");
+    }
+
+    @Test
+    void getUserProfiles_malformedBody_returns400() {
+        // when/then
+        assertThat(mockMvc.post().uri("/api/v1/users/profiles").contentType(MediaType.APPLICATION_JSON).content("{not json"))
+            .hasStatus(400);
+    }
+
     // ******** Helper methods ********
     private UserProfileResponse createTestProfile() {
         UserProfileResponse profile = new UserProfileResponse();
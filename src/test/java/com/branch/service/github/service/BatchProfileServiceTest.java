@@ -0,0 +1,137 @@
+package com.branch.service.github.service;
+
+import com.branch.service.github.config.BatchProperties;
+import com.branch.service.github.exception.GitHubApiException;
+import com.branch.service.github.exception.InvalidRequestException;
+import com.branch.service.github.exception.UserNotFoundException;
+import com.branch.service.github.model.dto.BatchProfileResponse;
+import com.branch.service.github.model.dto.UserProfileResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+
+@ExtendWith(MockitoExtension.class)
+class BatchProfileServiceTest {
+    @Mock
+    private ProfileService profileService;
+    @Spy
+    private BatchProperties batchProperties = new BatchProperties();
+    @Spy
+    private AsyncTaskExecutor gitHubExecutor = new SimpleAsyncTaskExecutor("github-test-");
+    @InjectMocks
+    private BatchProfileService batchProfileService; // <-- class under test
+
+    // ******** Tests ********
+    @Test
+    void getUserProfiles_mixedOutcomes_returnsPerUserStatus() {
+        // given
+        when(profileService.getUserProfile("octocat")).thenReturn(createTestProfile("octocat"));
+        when(profileService.getUserProfile("bogususer")).thenThrow(new UserNotFoundException("bogususer"));
+        when(profileService.getUserProfile("flaky")).thenThrow(new GitHubApiException("API error", new RuntimeException("connection refused")));
+
+        // when
+        BatchProfileResponse result = batchProfileService.getUserProfiles(List.of("octocat", "bogususer", "flaky"));
+
+        // then
+        assertThat(result.getResults()).extracting(BatchProfileResponse.Result::getUsername).containsExactly("octocat", "bogususer", "flaky");
+        assertThat(result.getResults()).extracting(BatchProfileResponse.Result::getStatus).containsExactly(200, 404, 502);
+        assertThat(result.getResults().get(0).getProfile().getUserName()).isEqualTo("octocat");
+        assertThat(result.getResults().get(1).getError().getMessage()).isEqualTo("User not found: bogususer");
+        assertThat(result.getResults().get(2).getError().getMessage()).isEqualTo("GitHub API error");
+    }
+
+    @Test
+    void getUserProfiles_duplicateUsernames_fetchedOnce() {
+        // given
+        when(profileService.getUserProfile("octocat")).thenReturn(createTestProfile("octocat"));
+
+        // when
+        BatchProfileResponse result = batchProfileService.getUserProfiles(List.of("octocat", "OctoCat", " octocat "));
+
+        // then
+        assertThat(result.getResults()).hasSize(1);
+        verify(profileService, times(1)).getUserProfile(anyString());
+    }
+
+    @Test
+    void getUserProfiles_slowUser_returns504AfterDeadline() {
+        // given
+        batchProperties.setTimeout(Duration.ofMillis(200));
+        when(profileService.getUserProfile("octocat")).thenReturn(createTestProfile("octocat"));
+        when(profileService.getUserProfile("slowuser")).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return createTestProfile("slowuser");
+        });
+
+        // when
+        long start = System.nanoTime();
+        BatchProfileResponse result = batchProfileService.getUserProfiles(List.of("octocat", "slowuser"));
+
+        // then
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(result.getResults()).extracting(BatchProfileResponse.Result::getStatus).containsExactly(200, 504);
+    }
+
+    @Test
+    void getUserProfiles_boundedParallelism_neverExceedsLimit() {
+        // given
+        batchProperties.setMaxParallelism(2);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        when(profileService.getUserProfile(anyString())).thenAnswer(invocation -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            Thread.sleep(50);
+            active.decrementAndGet();
+            return createTestProfile(invocation.getArgument(0));
+        });
+
+        // when
+        BatchProfileResponse result = batchProfileService.getUserProfiles(List.of("a", "b", "c", "d", "e", "f"));
+
+        // then
+        assertThat(result.getResults()).allSatisfy(r -> assertThat(r.getStatus()).isEqualTo(200));
+        assertThat(maxActive.get()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void getUserProfiles_tooManyUsernames_throwsInvalidRequestException() {
+        // given
+        batchProperties.setMaxUsernames(2);
+
+        // when/then
+        assertThatThrownBy(() -> batchProfileService.getUserProfiles(List.of("a", "b", "c")))
+            .isInstanceOf(InvalidRequestException.class);
+    }
+
+    @Test
+    void getUserProfiles_noUsernames_throwsInvalidRequestException() {
+        // when/then
+        assertThatThrownBy(() -> batchProfileService.getUserProfiles(List.of()))
+            .isInstanceOf(InvalidRequestException.class);
+    }
+
+    // ******** Helper methods ********
+    private UserProfileResponse createTestProfile(String username) {
+        UserProfileResponse profile = new UserProfileResponse();
+        profile.setUserName(username);
+        profile.setRepos(List.of());
+        return profile;
+    }
+}
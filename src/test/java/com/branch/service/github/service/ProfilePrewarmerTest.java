@@ -0,0 +1,114 @@
+package com.branch.service.github.service;
+
+import com.branch.service.github.cache.HotKeyTracker;
+import com.branch.service.github.client.RateLimitScheduler;
+import com.branch.service.github.client.RateLimitTracker;
+import com.branch.service.github.client.UpstreamContext.Priority;
+import com.branch.service.github.config.PrewarmProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+
+@ExtendWith(MockitoExtension.class)
+class ProfilePrewarmerTest {
+    @Spy
+    private PrewarmProperties prewarmProperties = new PrewarmProperties();
+    @Spy
+    private HotKeyTracker hotKeyTracker = new HotKeyTracker(new PrewarmProperties());
+    @Mock
+    private ProfileService profileService;
+    @Mock
+    private RateLimitTracker rateLimitTracker;
+    @Mock
+    private RateLimitScheduler rateLimitScheduler;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @InjectMocks
+    private ProfilePrewarmer profilePrewarmer; // <-- class under test
+
+    // ******** Tests ********
+    @Test
+    void prewarm_refreshesOnlyExpiringHotProfiles() {
+        // given
+        record("octocat", 5);
+        record("torvalds", 3);
+        when(profileService.refreshIfExpiring(eq("octocat"), any())).thenReturn(true);
+        when(profileService.refreshIfExpiring(eq("torvalds"), any())).thenReturn(false); // <-- not expiring (or not cached)
+
+        // when
+        profilePrewarmer.prewarm();
+
+        // then
+        assertThat(meterRegistry.counter("profile.prewarm.refreshes").count()).isEqualTo(1);
+    }
+
+    @Test
+    void prewarm_stopsAtMaxPerInterval() {
+        // given
+        prewarmProperties.setMaxPerInterval(2);
+        IntStream.range(0, 5).forEach(i -> record("user-" + i, 5 - i));
+        when(profileService.refreshIfExpiring(anyString(), any())).thenReturn(true);
+
+        // when
+        profilePrewarmer.prewarm();
+
+        // then
+        verify(profileService).refreshIfExpiring(eq("user-0"), any());
+        verify(profileService).refreshIfExpiring(eq("user-1"), any());
+        verify(profileService, times(2)).refreshIfExpiring(anyString(), any());
+    }
+
+    @Test
+    void prewarm_disabled_refreshesNothing() {
+        // given
+        prewarmProperties.setEnabled(false); // <-- a runtime switch, the bean exists either way
+        record("octocat", 5);
+
+        // when
+        profilePrewarmer.prewarm();
+
+        // then
+        verify(profileService, never()).refreshIfExpiring(anyString(), any());
+    }
+
+    @Test
+    void prewarm_backgroundCallsOverBudget_pausesUntilRepaid() {
+        // given
+        record("octocat", 5);
+        lenient().when(profileService.refreshIfExpiring(eq("octocat"), any())).thenReturn(true);
+        when(rateLimitTracker.getLimit()).thenReturn(5000L); // <-- 10% of 5000/h is ~1.4 calls per 10s interval
+        when(rateLimitScheduler.getSpentCount(Priority.BACKGROUND)).thenReturn(0L, 5L, 5L, 5L);
+
+        // when
+        profilePrewarmer.prewarm(); // <-- credit 1.4
+        profilePrewarmer.prewarm(); // <-- 1.4 + 1.4 - 5 < 0: paused
+        profilePrewarmer.prewarm(); // <-- still < 0: paused
+        profilePrewarmer.prewarm(); // <-- repaid
+
+        // then
+        verify(profileService, times(2)).refreshIfExpiring(eq("octocat"), any());
+    }
+
+    // ******** Helper methods ********
+    private void record(String username, int times) {
+        IntStream.range(0, times).forEach(i -> hotKeyTracker.record(username));
+    }
+}
@@ -1,28 +1,72 @@
 package com.branch.service.github.service;
 
+import com.branch.service.github.cache.HotKeyTracker;
+import com.branch.service.github.cache.ProfileCache;
 import com.branch.service.github.client.GitHubClient;
+import com.branch.service.github.client.UpstreamContext;
+import com.branch.service.github.config.CacheProperties;
+import com.branch.service.github.config.DeadlineProperties;
+import com.branch.service.github.config.PrewarmProperties;
+import com.branch.service.github.exception.DeadlineExceededException;
 import com.branch.service.github.exception.GitHubApiException;
+import com.branch.service.github.exception.InvalidRequestException;
 import com.branch.service.github.exception.UserNotFoundException;
 import com.branch.service.github.model.dto.UserProfileResponse;
 import com.branch.service.github.model.github.RepoResponse;
 import com.branch.service.github.model.github.UserResponse;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 
 @ExtendWith(MockitoExtension.class)
 class ProfileServiceTest {
+    private static final int CONCURRENT_CALLERS = 32;
+
     @Mock
     private GitHubClient gitHubClient;
+    @Spy
+    private AsyncTaskExecutor gitHubExecutor = new SimpleAsyncTaskExecutor("github-test-");
+    @Spy
+    private ProfileCache profileCache = new ProfileCache(new CacheProperties(), gitHubExecutor, Ticker.systemTicker()); // <-- loads on their own thread, like in production
+    @Spy
+    private HotKeyTracker hotKeyTracker = new HotKeyTracker(new PrewarmProperties());
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private DeadlineProperties deadlineProperties = new DeadlineProperties();
     @InjectMocks
     private ProfileService profileService; // <-- class under test
 
@@ -63,6 +107,103 @@ class ProfileServiceTest {
         assertThat(result.getCreatedAt()).isEqualTo("Tue, 25 Jan 2011 18:44:36 GMT");
     }
 
+    @Test
+    void getUserProfile_cachedProfile_skipsGitHub() {
+        // given
+        when(gitHubClient.getUserInfo("octocat")).thenReturn(createTestUserResponse());
+        when(gitHubClient.getUserRepos("octocat")).thenReturn(createTestRepoResponses());
+
+        // when
+        UserProfileResponse first = profileService.getUserProfile("octocat");
+        UserProfileResponse second = profileService.getUserProfile("OctoCat");
+
+        // then
+        assertThat(second).isSameAs(first);
+        verify(gitHubClient, times(1)).getUserInfo("octocat");
+        verify(gitHubClient, times(1)).getUserRepos("octocat");
+    }
+
+    @Test
+    void getUserProfile_recordsFetchAndAggregationOnlyOnCacheMiss() {
+        // given
+        when(gitHubClient.getUserInfo("octocat")).thenReturn(createTestUserResponse());
+        when(gitHubClient.getUserRepos("octocat")).thenReturn(createTestRepoResponses());
+
+        // when
+        profileService.getUserProfile("octocat");
+        profileService.getUserProfile("octocat");
+
+        // then
+        assertThat(meterRegistry.get("profile.requests").tag("outcome", "success").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("profile.fetch").timer().count()).isEqualTo(1); // <-- second call was a cache hit
+        assertThat(meterRegistry.get("profile.aggregate").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void getUserProfileWithoutRepos_skipsReposCall() {
+        // given
+        when(gitHubClient.getUserInfo("octocat")).thenReturn(createTestUserResponse());
+
+        // when
+        UserProfileResponse first = profileService.getUserProfileWithoutRepos("octocat");
+        UserProfileResponse second = profileService.getUserProfileWithoutRepos("octocat");
+
+        // then
+        assertThat(first.getUserName()).isEqualTo("octocat");
+        assertThat(first.getRepos()).isNull();
+        assertThat(second).isSameAs(first); // <-- cached separately from full profiles
+        verify(gitHubClient, times(1)).getUserInfo("octocat");
+        verify(gitHubClient, never()).getUserRepos(anyString());
+    }
+
+    @Test
+    void getUserProfileWithoutRepos_freshFullProfileCached_skipsGitHub() {
+        // given
+        when(gitHubClient.getUserInfo("octocat")).thenReturn(createTestUserResponse());
+        when(gitHubClient.getUserRepos("octocat")).thenReturn(createTestRepoResponses());
+        UserProfileResponse full = profileService.getUserProfile("octocat");
+
+        // when
+        UserProfileResponse result = profileService.getUserProfileWithoutRepos("octocat");
+
+        // then
+        assertThat(result).isSameAs(full);
+        verify(gitHubClient, times(1)).getUserInfo("octocat");
+    }
+
+    @Test
+    void getStreamedProfileHeader_freshFullProfileCached_returnsCopyWithoutRepos() {
+        // given
+        when(gitHubClient.getUserInfo("octocat")).thenReturn(createTestUserResponse());
+        when(gitHubClient.getUserRepos("octocat")).thenReturn(createTestRepoResponses());
+        UserProfileResponse full = profileService.getUserProfile("octocat");
+
+        // when
+        UserProfileResponse header = profileService.getStreamedProfileHeader("octocat");
+
+        // then
+        assertThat(header.getUserName()).isEqualTo("octocat");
+        assertThat(header.getRepos()).isNull();
+        assertThat(full.getRepos()).isNotNull(); // <-- the cached profile isn't touched
+        verify(gitHubClient, times(1)).getUserInfo("octocat");
+    }
+
+    @Test
+    void refreshIfExpiring_onlyProfileWithoutReposCached_refreshesItWithoutRepos() {
+        // given
+        when(gitHubClient.getUserInfo("octocat")).thenReturn(createTestUserResponse());
+        profileService.getUserProfileWithoutRepos("octocat");
+
+        // when
+        boolean refreshed = profileService.refreshIfExpiring("octocat", Duration.ofDays(1)); // <-- a lead longer than the ttl: expiring
+
+        // then
+        assertThat(refreshed).isTrue();
+        verify(gitHubClient, timeout(1_000).times(2)).getUserInfo("octocat"); // <-- refreshed in the background
+        verify(gitHubClient, never()).getUserRepos(anyString());
+        assertThat(profileService.refreshIfExpiring("torvalds", Duration.ofDays(1))).isFalse(); // <-- never cached
+    }
+
     @Test
     void getUserProfile_userNotFound_throwsUserNotFoundException() {
         // given
@@ -75,6 +216,56 @@ class ProfileServiceTest {
             .hasMessageContaining("bogususer");
     }
 
+    @Test
+    void getUserProfile_invalidUsername_throwsInvalidRequestWithoutCallingGitHub() {
+        // when/then
+        for (String username : List.of("-octocat", "octocat-", "octo--cat", "octo.cat", "octo/cat", "a".repeat(40), "")) {
+            assertThatThrownBy(() -> profileService.getUserProfile(username))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessageStartingWith("invalid GitHub username");
+        }
+        verifyNoInteractions(gitHubClient);
+    }
+
+    @Test
+    void getUserProfile_userNotFoundTwice_asksGitHubOnce() {
+        // given
+        when(gitHubClient.getUserInfo("bogususer")).thenThrow(new UserNotFoundException("bogususer"));
+
+        // when
+        assertThatThrownBy(() -> profileService.getUserProfile("bogususer")).isInstanceOf(UserNotFoundException.class);
+        assertThatThrownBy(() -> profileService.getUserProfileWithoutRepos("BogusUser")).isInstanceOf(UserNotFoundException.class); // <-- negative cache hit
+
+        // then
+        verify(gitHubClient, times(1)).getUserInfo(anyString());
+    }
+
+    @Test
+    void getUserProfile_userNotFound_cancelsReposCall() throws Exception {
+        // given
+        CountDownLatch reposCancelled = new CountDownLatch(1);
+        when(gitHubClient.getUserInfo("bogususer")).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            throw new UserNotFoundException("bogususer");
+        });
+        when(gitHubClient.getUserRepos("bogususer")).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(5_000); // <-- i.e. - queued behind the rate limiter
+            } catch (InterruptedException e) {
+                reposCancelled.countDown();
+            }
+            return List.of();
+        });
+
+        // when
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> profileService.getUserProfile("bogususer")).isInstanceOf(UserNotFoundException.class);
+
+        // then
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2)); // <-- didn't wait for the repos call
+        assertThat(reposCancelled.await(2, TimeUnit.SECONDS)).isTrue();
+    }
+
     @Test
     void getUserProfile_gitHubApiError_throwsGitHubApiException() {
         // given
@@ -86,7 +277,178 @@ class ProfileServiceTest {
             .isInstanceOf(GitHubApiException.class);
     }
 
+    @Test
+    void getUserProfile_reposUnavailable_returnsPartialProfileWithoutCachingIt() {
+        // given
+        when(gitHubClient.getUserInfo("octocat")).thenReturn(createTestUserResponse());
+        when(gitHubClient.getUserRepos("octocat")).thenThrow(new GitHubApiException("repos down", null));
+
+        // when
+        UserProfileResponse result = profileService.getUserProfile("octocat");
+
+        // then
+        assertThat(result.isPartial()).isTrue();
+        assertThat(result.getUserName()).isEqualTo("octocat");
+        assertThat(result.getRepos()).isNull();
+        assertThat(profileCache.getLastKnownGood("octocat")).isNull(); // <-- never cached
+    }
+
+    @Test
+    void getUserProfile_gitHubUnavailable_servesLastKnownGoodAsPartial() {
+        // given
+        when(gitHubClient.getUserInfo("octocat")).thenReturn(createTestUserResponse());
+        when(gitHubClient.getUserRepos("octocat")).thenReturn(createTestRepoResponses());
+        UserProfileResponse lastGood = profileService.getUserProfile("octocat");
+        doThrow(new GitHubApiException("circuit open", null)).when(profileCache).get(eq("octocat"), any());
+
+        // when
+        UserProfileResponse result = profileService.getUserProfile("octocat");
+
+        // then
+        assertThat(result.isPartial()).isTrue();
+        assertThat(result.getRepos()).hasSize(2);
+        assertThat(lastGood.isPartial()).isFalse(); // <-- the cached instance isn't touched
+    }
+
+    @Test
+    void getUserProfile_deadlinePassesWhileFetchingRepos_returnsPartialProfileAndCachesFullOne() {
+        // given
+        when(gitHubClient.getUserInfo("octocat")).thenReturn(createTestUserResponse());
+        when(gitHubClient.getUserRepos("octocat")).thenAnswer(invocation -> {
+            Thread.sleep(500); // <-- past the caller's deadline
+            return createTestRepoResponses();
+        });
+
+        // when
+        long start = System.nanoTime();
+        UserProfileResponse result = UpstreamContext.callWithin(Duration.ofMillis(200), () -> profileService.getUserProfile("octocat"));
+        UserProfileResponse next = profileService.getUserProfile("octocat"); // <-- no deadline, joins the fetch still running
+
+        // then
+        assertThat(result.isPartial()).isTrue();
+        assertThat(result.getUserName()).isEqualTo("octocat");
+        assertThat(result.getRepos()).isNull();
+        assertThat(next.isPartial()).isFalse();
+        assertThat(next.getRepos()).hasSize(2);
+        assertThat(profileCache.getIfFresh("octocat")).isSameAs(next); // <-- the fetch went on, and was cached
+        verify(gitHubClient, times(1)).getUserRepos("octocat");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void getUserProfile_firstCallerHasShortDeadline_otherCallersGetFullProfile() throws Exception {
+        // given
+        when(gitHubClient.getUserInfo("octocat")).thenReturn(createTestUserResponse());
+        when(gitHubClient.getUserRepos("octocat")).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return createTestRepoResponses();
+        });
+
+        // when
+        CompletableFuture<UserProfileResponse> hurried = CompletableFuture.supplyAsync(
+            () -> UpstreamContext.callWithin(Duration.ofMillis(100), () -> profileService.getUserProfile("octocat")));
+        Thread.sleep(50); // <-- the hurried caller started the fetch
+        UserProfileResponse patient = UpstreamContext.callWithin(Duration.ofSeconds(10), () -> profileService.getUserProfile("octocat"));
+
+        // then
+        assertThat(hurried.get(5, TimeUnit.SECONDS).isPartial()).isTrue();
+        assertThat(patient.isPartial()).isFalse(); // <-- not cut short by the first caller's deadline
+        assertThat(patient.getRepos()).hasSize(2);
+        verify(gitHubClient, times(1)).getUserRepos("octocat");
+    }
+
+    @Test
+    void getUserProfile_deadlinePassesWhileFetchingUser_throwsDeadlineExceededException() {
+        // given
+        when(gitHubClient.getUserInfo("octocat")).thenAnswer(invocation -> {
+            Thread.sleep(2_000);
+            return createTestUserResponse();
+        });
+        when(gitHubClient.getUserRepos("octocat")).thenReturn(createTestRepoResponses());
+
+        // when/then
+        assertThatThrownBy(() -> UpstreamContext.callWithin(Duration.ofMillis(200), () -> profileService.getUserProfile("octocat")))
+            .isInstanceOf(DeadlineExceededException.class);
+    }
+
+    @Test
+    void getUserProfile_concurrentCallers_shareOneUpstreamFetch() throws Exception {
+        // given
+        when(gitHubClient.getUserInfo("octocat")).thenAnswer(invocation -> {
+            Thread.sleep(300); // <-- slow upstream, so every caller arrives while the fetch is in flight
+            return createTestUserResponse();
+        });
+        when(gitHubClient.getUserRepos("octocat")).thenReturn(createTestRepoResponses());
+
+        // when
+        List<Object> results = callConcurrently("octocat");
+
+        // then
+        assertThat(results).hasSize(CONCURRENT_CALLERS).allSatisfy(result -> assertThat(result).isInstanceOf(UserProfileResponse.class));
+        verify(gitHubClient, times(1)).getUserInfo(anyString());
+        verify(gitHubClient, times(1)).getUserRepos(anyString());
+    }
+
+    @Test
+    void getUserProfile_concurrentCallers_allReceiveUpstreamError() throws Exception {
+        // given
+        when(gitHubClient.getUserInfo("bogususer")).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            throw new UserNotFoundException("bogususer");
+        });
+        when(gitHubClient.getUserRepos("bogususer")).thenThrow(new UserNotFoundException("bogususer"));
+
+        // when
+        List<Object> results = callConcurrently("bogususer");
+
+        // then
+        assertThat(results).hasSize(CONCURRENT_CALLERS).allSatisfy(result -> assertThat(result).isInstanceOf(UserNotFoundException.class));
+        verify(gitHubClient, times(1)).getUserInfo(anyString());
+        verify(gitHubClient, times(1)).getUserRepos(anyString());
+    }
+
+    @Test
+    void getUserProfileWithoutRepos_fetchThrowsError_concurrentCallersDoNotHang() throws Exception {
+        // given
+        when(gitHubClient.getUserInfo("octocat")).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            throw new StackOverflowError();
+        });
+
+        // when
+        List<Object> results = callConcurrently("octocat", profileService::getUserProfileWithoutRepos);
+
+        // then
+        assertThat(results).hasSize(CONCURRENT_CALLERS).allSatisfy(result -> assertThat(result).isInstanceOf(Throwable.class));
+        verify(gitHubClient, times(1)).getUserInfo(anyString());
+        assertThat(profileService.getInFlightCount()).isZero();
+    }
+
     // ******** Helper methods ********
+    // calls getUserProfile from many threads at once, returning each caller's profile or exception
+    private List<Object> callConcurrently(String username) throws Exception {
+        return callConcurrently(username, profileService::getUserProfile);
+    }
+
+    private List<Object> callConcurrently(String username, Function<String, UserProfileResponse> call) throws Exception {
+        CyclicBarrier start = new CyclicBarrier(CONCURRENT_CALLERS);
+        try (ExecutorService callers = Executors.newFixedThreadPool(CONCURRENT_CALLERS)) {
+            List<CompletableFuture<Object>> futures = IntStream.range(0, CONCURRENT_CALLERS)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                        return (Object) call.apply(username);
+                    } catch (RuntimeException | Error e) {
+                        return e;
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }, callers))
+                .toList();
+            return futures.stream().map(CompletableFuture::join).toList();
+        }
+    }
+
     private UserResponse createTestUserResponse() {
         UserResponse user = new UserResponse();
         user.setLogin("octocat");
@@ -100,14 +462,8 @@ class ProfileServiceTest {
     }
 
     private List<RepoResponse> createTestRepoResponses() {
-        RepoResponse repo1 = new RepoResponse();
-        repo1.setName("hello-world");
-        repo1.setUrl("https://github.com/octocat/hello-world");
-
-        RepoResponse repo2 = new RepoResponse();
-        repo2.setName("spoon-knife");
-        repo2.setUrl("https://github.com/octocat/spoon-knife");
-
-        return List.of(repo1, repo2);
+        return List.of(
+            new RepoResponse("hello-world", "https://github.com/octocat/hello-world"),
+            new RepoResponse("spoon-knife", "https://github.com/octocat/spoon-knife"));
     }
 }